@@ -35,8 +35,79 @@ The minimum number of rewards needed to distribute.
  * 
  * Time Complexity: O(n)
  * Space Complexity: O(n)
+ *
+ * Streaming Mode (RewardCounter):
+ * - The rewards array is not needed: the total only depends on the lengths of the
+ *   ascending and descending runs
+ * - Ascending step: the new employee gets up + 1 rewards (up = length of the current climb)
+ * - Equal step: the new employee restarts at 1
+ * - Descending step: the new employee gets 1 and every earlier employee of the descent gets one
+ *   more, adding down rewards; the peak before the descent only grows once the descent
+ *   becomes longer than the climb that led to it
+ * - Ratings are consumed one at a time, so they can come from an IntStream, a
+ *   PrimitiveIterator or a binary file mapped region by region, and the total is a long
+ *
+ * Time Complexity: O(n)
+ * Space Complexity: O(1)
+ *
+ * Parallel Mode (minRewardsParallel):
+ * - Each employee receives max(L, R), where L is the length of the ascending run ending at
+ *   them and R the length of the descending run starting at them
+ * - The ratings are cut into chunks; the first pass records, per chunk, the ascending run at
+ *   its end and the descending run at its start (the slopes that can cross a boundary)
+ * - A short sequential scan over the chunks turns these into carries: the true L of the element
+ *   before each chunk and the true R of the element after it
+ * - The second pass runs a RewardCounter over each chunk, seeded with a virtual ascent of the
+ *   left carry and closed with a virtual descent of the right carry, then removes the rewards
+ *   of those virtual employees; both passes run as tasks on a ForkJoinPool
+ * - The per-chunk totals add up to exactly the sequential answer
+ *
+ * Time Complexity: O(n / p + chunks)
+ * Space Complexity: O(chunks)
+ *
+ * Online Mode (RewardTree):
+ * - Split the steps between neighbours into maximal runs of ups (U), downs (D) and equals (E).
+ *   Summing max(L, R) over everyone gives
+ *   total = n + sum over U and D runs of len * (len + 1) / 2 - sum over peaks of min(up, down)
+ *   where a peak is a U run immediately followed by a D run
+ * - An implicit treap (keyed by position) stores in every node the run summary of its subtree:
+ *   its first and last ratings, the two runs at each edge and the already-settled value of the
+ *   runs in between; two summaries merge in O(1) by joining the runs that meet at the boundary
+ * - Updates, inserts and deletes rebuild the summaries along one root path, and an employee's
+ *   reward is read from the edge runs of the prefix ending at them and the suffix starting at them
+ *
+ * Time Complexity: O(log n) expected per update, insert, delete and lookup
+ * Space Complexity: O(n)
+ *
+ * Graph Mode (minRewardsOnGraph):
+ * - Adjacent colleagues come from a graph in compressed sparse row form: the neighbours of v are
+ *   neighbors[offsets[v]] .. neighbors[offsets[v + 1] - 1], each edge listed in both directions
+ * - Orienting every edge from the lower to the higher rating gives a DAG (equal ratings impose
+ *   nothing), and an employee's minimum reward is 1 + the longest path ending at them
+ * - Kahn's algorithm processes employees once all their lower-rated neighbours are done, so each
+ *   vertex and edge is handled once
+ * - The parallel variant sweeps frontier by frontier: the frontier at depth d holds exactly the
+ *   employees whose reward is d + 1, its edges are relaxed in parallel with atomic in-degree
+ *   counters, and employees reaching zero form the next frontier
+ *
+ * Time Complexity: O(V + E)
+ * Space Complexity: O(V)
  */
 
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
 public class Question2a {
 
     // Function to calculate the minimum number of rewards
@@ -82,6 +153,600 @@ public class Question2a {
         return totalRewards;
     }
 
+    // Single-pass reward counter that keeps only the current run lengths
+    public static class RewardCounter implements IntConsumer {
+        private long total; // Rewards handed out so far
+        private long up; // Length of the current ascending run
+        private long down; // Length of the current descending run
+        private long peak; // Length of the ascending run before the current descent
+        private int previous; // Previous rating
+        private boolean started; // Whether any rating has been seen
+
+        @Override
+        public void accept(int rating) {
+            if (!started) {
+                started = true;
+                total = 1;
+            } else if (rating > previous) {
+                up++;
+                down = 0;
+                peak = up;
+                total += up + 1;
+            } else if (rating == previous) {
+                up = down = peak = 0;
+                total += 1;
+            } else {
+                up = 0;
+                down++;
+                // The peak only needs an extra reward once the descent outgrows its climb
+                total += down + (peak >= down ? 0 : 1);
+            }
+            previous = rating;
+        }
+
+        // Minimum total rewards for the ratings seen so far
+        public long total() {
+            return total;
+        }
+
+        // Function to start the counter as if an ascending run of the given length had just
+        // ended with the given rating (its rewards 1 + 2 + ... + length are included)
+        void seedAscent(int lastRating, long length) {
+            started = true;
+            previous = lastRating;
+            up = length - 1;
+            down = 0;
+            peak = up;
+            total = length * (length + 1) / 2;
+        }
+
+        // Function to continue with a descending run of the given number of employees in O(1),
+        // as if accept() had been called with ever lower ratings
+        void appendDescent(long steps) {
+            if (steps <= 0)
+                return;
+            long start = down;
+            // Step k adds start + k, plus one more once start + k exceeds the peak
+            long belowPeak = Math.min(steps, Math.max(0, peak - start));
+            total += steps * start + steps * (steps + 1) / 2 + (steps - belowPeak);
+            up = 0;
+            down = start + steps;
+        }
+    }
+
+    // Function to calculate the minimum rewards using all cores of the common pool
+    public static long minRewardsParallel(int[] ratings) {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        return minRewardsParallel(ratings, pool, pool.getParallelism() * 4);
+    }
+
+    // Function to calculate the minimum rewards by splitting the ratings into chunks that are
+    // processed on the given pool and merged at their boundaries
+    public static long minRewardsParallel(int[] ratings, ForkJoinPool pool, int chunks) {
+        int n = ratings.length;
+        if (n == 0)
+            return 0;
+        int count = Math.max(1, Math.min(chunks, n));
+        int[] start = new int[count + 1];
+        for (int c = 0; c <= count; c++) {
+            start[c] = (int) ((long) n * c / count);
+        }
+
+        // Pass 1: slopes that can cross each chunk boundary
+        long[] ascentAtEnd = new long[count]; // Ascending run ending at the chunk's last element
+        long[] descentAtStart = new long[count]; // Descending run starting at the chunk's first element
+        pool.submit(() -> IntStream.range(0, count).parallel().forEach(c -> {
+            int from = start[c], to = start[c + 1];
+            int i = to - 1;
+            while (i > from && ratings[i] > ratings[i - 1]) {
+                i--;
+            }
+            ascentAtEnd[c] = to - i;
+            i = from;
+            while (i < to - 1 && ratings[i] > ratings[i + 1]) {
+                i++;
+            }
+            descentAtStart[c] = i - from + 1;
+        })).join();
+
+        // Sequential scan: true L before each chunk and true R after it
+        long[] carryLeft = new long[count];
+        long[] carryRight = new long[count];
+        long endL = 0; // True L of the last element of the previous chunk
+        for (int c = 0; c < count; c++) {
+            int from = start[c], length = start[c + 1] - from;
+            carryLeft[c] = from > 0 && ratings[from] > ratings[from - 1] ? endL : 0;
+            endL = ascentAtEnd[c] == length ? carryLeft[c] + length : ascentAtEnd[c];
+        }
+        long startR = 0; // True R of the first element of the next chunk
+        for (int c = count - 1; c >= 0; c--) {
+            int to = start[c + 1], length = to - start[c];
+            carryRight[c] = to < n && ratings[to - 1] > ratings[to] ? startR : 0;
+            startR = descentAtStart[c] == length ? carryRight[c] + length : descentAtStart[c];
+        }
+
+        // Pass 2: each chunk's rewards with its boundary carries
+        return pool.submit(() -> IntStream.range(0, count).parallel().mapToLong(c -> {
+            int from = start[c], to = start[c + 1];
+            RewardCounter counter = new RewardCounter();
+            if (carryLeft[c] > 0) {
+                counter.seedAscent(ratings[from - 1], carryLeft[c]);
+            }
+            for (int i = from; i < to; i++) {
+                counter.accept(ratings[i]);
+            }
+            counter.appendDescent(carryRight[c]);
+
+            // Remove the virtual employees: the ascent before had rewards 1..carryLeft,
+            // the descent after had rewards carryRight..1
+            return counter.total() - carryLeft[c] * (carryLeft[c] + 1) / 2
+                    - carryRight[c] * (carryRight[c] + 1) / 2;
+        }).sum()).join();
+    }
+
+    // Function to calculate the minimum rewards for ratings from an ordered stream
+    public static long minRewards(IntStream ratings) {
+        RewardCounter counter = new RewardCounter();
+        ratings.forEachOrdered(counter);
+        return counter.total();
+    }
+
+    // Function to calculate the minimum rewards for ratings from an iterator
+    public static long minRewards(PrimitiveIterator.OfInt ratings) {
+        RewardCounter counter = new RewardCounter();
+        while (ratings.hasNext()) {
+            counter.accept(ratings.nextInt());
+        }
+        return counter.total();
+    }
+
+    // Function to calculate the minimum rewards for ratings stored as little-endian ints,
+    // mapping the file one region at a time
+    public static long minRewards(Path file) throws IOException {
+        RewardCounter counter = new RewardCounter();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size % Integer.BYTES != 0)
+                throw new IOException("Not an array of ints: " + file);
+            long region = 1L << 30; // Map at most 1 GiB at a time
+            for (long offset = 0; offset < size; offset += region) {
+                IntBuffer ints = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(region, size - offset))
+                        .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+                while (ints.hasRemaining()) {
+                    counter.accept(ints.get());
+                }
+            }
+        }
+        return counter.total();
+    }
+
+    // Function to calculate the minimum rewards when adjacency is an arbitrary graph in CSR form
+    public static long minRewardsOnGraph(int[] ratings, int[] offsets, int[] neighbors) {
+        int n = ratings.length;
+        checkAdjacency(n, offsets, neighbors);
+
+        // In-degree: number of lower-rated neighbours each employee must wait for
+        int[] waiting = new int[n];
+        for (int v = 0; v < n; v++) {
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                if (ratings[neighbors[e]] < ratings[v])
+                    waiting[v]++;
+            }
+        }
+
+        // Kahn's algorithm over a plain int array used as the queue
+        int[] queue = new int[n];
+        int[] rewards = new int[n];
+        int head = 0, tail = 0;
+        for (int v = 0; v < n; v++) {
+            if (waiting[v] == 0) {
+                queue[tail++] = v;
+                rewards[v] = 1;
+            }
+        }
+        long total = 0;
+        while (head < tail) {
+            int v = queue[head++];
+            total += rewards[v];
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                int w = neighbors[e];
+                if (ratings[w] > ratings[v]) {
+                    rewards[w] = Math.max(rewards[w], rewards[v] + 1);
+                    if (--waiting[w] == 0)
+                        queue[tail++] = w;
+                }
+            }
+        }
+        return total;
+    }
+
+    // Function to calculate the minimum graph rewards frontier by frontier on the given pool
+    public static long minRewardsOnGraphParallel(int[] ratings, int[] offsets, int[] neighbors, ForkJoinPool pool) {
+        int n = ratings.length;
+        checkAdjacency(n, offsets, neighbors);
+
+        // Every employee counts its own lower-rated neighbours, so no synchronisation is needed here
+        AtomicIntegerArray waiting = new AtomicIntegerArray(n);
+        int[] sources = new int[n];
+        AtomicInteger frontierSize = new AtomicInteger();
+        pool.submit(() -> IntStream.range(0, n).parallel().forEach(v -> {
+            int lower = 0;
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                if (ratings[neighbors[e]] < ratings[v])
+                    lower++;
+            }
+            waiting.set(v, lower);
+            if (lower == 0)
+                sources[frontierSize.getAndIncrement()] = v;
+        })).join();
+        int[] frontier = sources;
+        int[] next = new int[n];
+
+        long total = 0;
+        int size = frontierSize.get();
+        for (long depth = 1; size > 0; depth++) {
+            total += depth * size;
+
+            // Relax the frontier's upward edges; the last lower neighbour to finish enqueues w
+            int[] current = frontier, target = next;
+            AtomicInteger nextSize = new AtomicInteger();
+            pool.submit(() -> IntStream.range(0, frontierSize.get()).parallel().forEach(i -> {
+                int v = current[i];
+                for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                    int w = neighbors[e];
+                    if (ratings[w] > ratings[v] && waiting.decrementAndGet(w) == 0)
+                        target[nextSize.getAndIncrement()] = w;
+                }
+            })).join();
+
+            int[] swap = frontier;
+            frontier = next;
+            next = swap;
+            size = nextSize.get();
+            frontierSize.set(size);
+        }
+        return total;
+    }
+
+    private static void checkAdjacency(int n, int[] offsets, int[] neighbors) {
+        if (offsets.length != n + 1 || offsets[0] != 0 || offsets[n] != neighbors.length)
+            throw new IllegalArgumentException("offsets must have n + 1 entries from 0 to neighbors.length");
+    }
+
+    // Ratings that change online, with the minimum total and each employee's reward kept current
+    public static class RewardTree {
+        private final Random random = new Random(2024); // Treap priorities
+        private Node root;
+
+        public RewardTree(int[] ratings) {
+            for (int rating : ratings) {
+                insert(size(), rating);
+            }
+        }
+
+        // Number of employees
+        public int size() {
+            return root == null ? 0 : root.summary.size;
+        }
+
+        // Minimum total rewards for the current ratings
+        public long total() {
+            return root == null ? 0 : root.summary.value();
+        }
+
+        // Function to change the rating of the employee at the given position
+        public void update(int index, int rating) {
+            checkIndex(index, size());
+            root = update(root, index, rating);
+        }
+
+        // Function to insert a new employee so that it ends up at the given position
+        public void insert(int index, int rating) {
+            checkIndex(index, size() + 1);
+            Node[] parts = split(root, index);
+            root = merge(merge(parts[0], new Node(rating, random.nextInt())), parts[1]);
+        }
+
+        // Function to remove the employee at the given position
+        public void delete(int index) {
+            checkIndex(index, size());
+            Node[] parts = split(root, index);
+            Node[] rest = split(parts[1], 1);
+            root = merge(parts[0], rest[1]);
+        }
+
+        // Function to get the reward of the employee at the given position
+        public long reward(int index) {
+            checkIndex(index, size());
+            RunSummary prefix = prefix(index); // Employees 0..index
+            RunSummary suffix = suffix(index); // Employees index..n-1
+            long left = prefix.lastRunType() == RunSummary.UP ? prefix.lastRunLength() + 1 : 1;
+            long right = suffix.firstRunType() == RunSummary.DOWN ? suffix.firstRunLength() + 1 : 1;
+            return Math.max(left, right);
+        }
+
+        private static void checkIndex(int index, int limit) {
+            if (index < 0 || index >= limit)
+                throw new IndexOutOfBoundsException("Index " + index + " out of range [0, " + limit + ")");
+        }
+
+        // Function to change a rating by walking down to it and rebuilding the summaries on the way up
+        private Node update(Node node, int index, int rating) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node.left = update(node.left, index, rating);
+            } else if (index > leftSize) {
+                node.right = update(node.right, index - leftSize - 1, rating);
+            } else {
+                node.rating = rating;
+            }
+            node.refresh();
+            return node;
+        }
+
+        // Function to split into the first count employees and the rest
+        private Node[] split(Node node, int count) {
+            if (node == null)
+                return new Node[] { null, null };
+            int leftSize = size(node.left);
+            if (count <= leftSize) {
+                Node[] parts = split(node.left, count);
+                node.left = parts[1];
+                node.refresh();
+                return new Node[] { parts[0], node };
+            }
+            Node[] parts = split(node.right, count - leftSize - 1);
+            node.right = parts[0];
+            node.refresh();
+            return new Node[] { node, parts[1] };
+        }
+
+        // Function to concatenate two treaps, keeping the heap order of priorities
+        private Node merge(Node left, Node right) {
+            if (left == null)
+                return right;
+            if (right == null)
+                return left;
+            if (left.priority > right.priority) {
+                left.right = merge(left.right, right);
+                left.refresh();
+                return left;
+            }
+            right.left = merge(left, right.left);
+            right.refresh();
+            return right;
+        }
+
+        // Function to summarise employees 0..index without changing the tree
+        private RunSummary prefix(int index) {
+            RunSummary result = null;
+            Node node = root;
+            while (node != null) {
+                int leftSize = size(node.left);
+                if (index < leftSize) {
+                    node = node.left;
+                } else {
+                    result = RunSummary.concat(RunSummary.concat(result, summary(node.left)), node.leaf);
+                    if (index == leftSize)
+                        break;
+                    index -= leftSize + 1;
+                    node = node.right;
+                }
+            }
+            return result;
+        }
+
+        // Function to summarise employees index..n-1 without changing the tree
+        private RunSummary suffix(int index) {
+            RunSummary result = null;
+            Node node = root;
+            while (node != null) {
+                int leftSize = size(node.left);
+                if (index > leftSize) {
+                    index -= leftSize + 1;
+                    node = node.right;
+                } else {
+                    result = RunSummary.concat(RunSummary.concat(node.leaf, summary(node.right)), result);
+                    if (index == leftSize)
+                        break;
+                    node = node.left;
+                }
+            }
+            return result;
+        }
+
+        private static int size(Node node) {
+            return node == null ? 0 : node.summary.size;
+        }
+
+        private static RunSummary summary(Node node) {
+            return node == null ? null : node.summary;
+        }
+
+        // Treap node holding one employee and the summary of its subtree
+        private static final class Node {
+            int rating;
+            final int priority;
+            Node left, right;
+            RunSummary leaf; // Summary of this employee alone
+            RunSummary summary; // Summary of the whole subtree
+
+            Node(int rating, int priority) {
+                this.rating = rating;
+                this.priority = priority;
+                refresh();
+            }
+
+            void refresh() {
+                if (leaf == null || leaf.first != rating) {
+                    leaf = RunSummary.single(rating);
+                }
+                summary = RunSummary.concat(RunSummary.concat(RewardTree.summary(left), leaf),
+                        RewardTree.summary(right));
+            }
+        }
+    }
+
+    // Immutable summary of a block of consecutive employees in terms of runs of steps
+    static final class RunSummary {
+        static final byte EQUAL = 0, UP = 1, DOWN = 2;
+
+        final int size; // Employees in the block
+        final int first, last; // First and last rating
+        // Edge runs: every run when there are at most 4 (explicit), otherwise the first two and the
+        // last two, with the settled value of the runs from the second to the second-to-last in inner
+        final byte[] types;
+        final long[] lengths;
+        final boolean compressed;
+        final long inner;
+
+        private RunSummary(int size, int first, int last, byte[] types, long[] lengths, boolean compressed,
+                long inner) {
+            this.size = size;
+            this.first = first;
+            this.last = last;
+            this.types = types;
+            this.lengths = lengths;
+            this.compressed = compressed;
+            this.inner = inner;
+        }
+
+        static RunSummary single(int rating) {
+            return new RunSummary(1, rating, rating, new byte[0], new long[0], false, 0);
+        }
+
+        byte firstRunType() {
+            return types.length == 0 ? EQUAL : types[0];
+        }
+
+        long firstRunLength() {
+            return lengths.length == 0 ? 0 : lengths[0];
+        }
+
+        byte lastRunType() {
+            return types.length == 0 ? EQUAL : types[types.length - 1];
+        }
+
+        long lastRunLength() {
+            return lengths.length == 0 ? 0 : lengths[lengths.length - 1];
+        }
+
+        // Minimum total rewards for this block on its own
+        long value() {
+            long total = size;
+            int runs = types.length;
+            if (!compressed) {
+                for (int r = 0; r < runs; r++) {
+                    total += triangle(types[r], lengths[r]);
+                    if (r > 0)
+                        total -= peak(types[r - 1], lengths[r - 1], types[r], lengths[r]);
+                }
+                return total;
+            }
+            return total + inner + triangle(types[0], lengths[0]) + triangle(types[3], lengths[3])
+                    - peak(types[0], lengths[0], types[1], lengths[1]) - peak(types[2], lengths[2], types[3], lengths[3]);
+        }
+
+        // Function to concatenate two blocks (either may be null)
+        static RunSummary concat(RunSummary a, RunSummary b) {
+            if (a == null)
+                return b;
+            if (b == null)
+                return a;
+
+            // Token lists: runs with a flag telling whether inner already counts them, or an inner value
+            int capacity = 12;
+            byte[] kind = new byte[capacity]; // 0 = run, 1 = settled run, 2 = inner value
+            byte[] type = new byte[capacity];
+            long[] amount = new long[capacity];
+            int count = appendTokens(a, kind, type, amount, 0);
+
+            // The step between the blocks joins the last run of a if it has the same direction
+            byte step = b.first > a.last ? UP : b.first < a.last ? DOWN : EQUAL;
+            if (count > 0 && kind[count - 1] == 0 && type[count - 1] == step) {
+                amount[count - 1]++;
+            } else {
+                kind[count] = 0;
+                type[count] = step;
+                amount[count] = 1;
+                count++;
+            }
+
+            // ... and the first run of b joins it in turn
+            int start = count;
+            count = appendTokens(b, kind, type, amount, count);
+            if (count > start && type[start] == type[start - 1] && kind[start] == 0) {
+                amount[start - 1] += amount[start];
+                System.arraycopy(kind, start + 1, kind, start, count - start - 1);
+                System.arraycopy(type, start + 1, type, start, count - start - 1);
+                System.arraycopy(amount, start + 1, amount, start, count - start - 1);
+                count--;
+            }
+            return fromTokens(a.size + b.size, a.first, b.last, kind, type, amount, count);
+        }
+
+        // Function to lay out a summary as tokens, returning the new token count
+        private static int appendTokens(RunSummary s, byte[] kind, byte[] type, long[] amount, int count) {
+            if (!s.compressed) {
+                for (int r = 0; r < s.types.length; r++) {
+                    kind[count] = 0;
+                    type[count] = s.types[r];
+                    amount[count++] = s.lengths[r];
+                }
+                return count;
+            }
+            for (int r = 0; r < 4; r++) {
+                kind[count] = (byte) (r == 1 || r == 2 ? 1 : 0);
+                type[count] = s.types[r];
+                amount[count++] = s.lengths[r];
+                if (r == 1) {
+                    kind[count] = 2;
+                    amount[count++] = s.inner;
+                }
+            }
+            return count;
+        }
+
+        // Function to build a summary from tokens, compressing when there are too many runs
+        private static RunSummary fromTokens(int size, int first, int last, byte[] kind, byte[] type, long[] amount,
+                int count) {
+            boolean hasInner = false;
+            for (int t = 0; t < count; t++) {
+                hasInner |= kind[t] == 2;
+            }
+            if (!hasInner && count <= 4) {
+                return new RunSummary(size, first, last, java.util.Arrays.copyOf(type, count),
+                        java.util.Arrays.copyOf(amount, count), false, 0);
+            }
+
+            // Settle everything between the first and the last run
+            long inner = 0;
+            for (int t = 1; t <= count - 2; t++) {
+                if (kind[t] == 2) {
+                    inner += amount[t];
+                    continue;
+                }
+                if (kind[t] == 0)
+                    inner += triangle(type[t], amount[t]);
+                if (t + 1 <= count - 2 && kind[t + 1] != 2)
+                    inner -= peak(type[t], amount[t], type[t + 1], amount[t + 1]);
+            }
+            byte[] types = { type[0], type[1], type[count - 2], type[count - 1] };
+            long[] lengths = { amount[0], amount[1], amount[count - 2], amount[count - 1] };
+            return new RunSummary(size, first, last, types, lengths, true, inner);
+        }
+
+        // Rewards added by a run: 1 + 2 + ... + length for ups and downs, nothing for equals
+        private static long triangle(byte type, long length) {
+            return type == EQUAL ? 0 : length * (length + 1) / 2;
+        }
+
+        // Overlap counted twice at a peak (an up run followed by a down run)
+        private static long peak(byte leftType, long leftLength, byte rightType, long rightLength) {
+            return leftType == UP && rightType == DOWN ? Math.min(leftLength, rightLength) : 0;
+        }
+    }
+
     public static void main(String[] args) {
         // Test case 1
         int[] ratings1 = { 1, 0, 2 };
@@ -102,6 +767,159 @@ public class Question2a {
         // Test case 5: All ratings are the same
         int[] ratings5 = { 1, 3, 2, 4 };
         System.out.println("Test Case 5: " + minRewards(ratings5)); // Output: 7
+
+        // Streaming mode against the two-pass method on random ratings
+        java.util.Random random = new java.util.Random(3);
+        int mismatches = 0;
+        for (int trial = 0; trial < 10_000; trial++) {
+            int[] ratings = random.ints(random.nextInt(30), 0, 5).toArray();
+            if (minRewards(IntStream.of(ratings)) != minRewards(ratings)
+                    || minRewards(IntStream.of(ratings).iterator()) != minRewards(ratings))
+                mismatches++;
+        }
+        System.out.println("Streaming mismatches: " + mismatches);
+
+        // 70,000 ascending ratings need more rewards than an int can hold
+        System.out.println("70,000 ascending (int): " + minRewards(IntStream.range(0, 70_000).toArray()));
+        System.out.println("70,000 ascending (streaming): " + minRewards(IntStream.range(0, 70_000)));
+
+        // Parallel mode against the sequential method with many chunk counts
+        int parallelMismatches = 0;
+        for (int trial = 0; trial < 5_000; trial++) {
+            int[] ratings = random.ints(1 + random.nextInt(40), 0, 1 + random.nextInt(6)).toArray();
+            for (int chunks = 1; chunks <= 12; chunks++) {
+                if (minRewardsParallel(ratings, ForkJoinPool.commonPool(), chunks) != minRewards(IntStream.of(ratings)))
+                    parallelMismatches++;
+            }
+        }
+        System.out.println("Parallel mismatches: " + parallelMismatches);
+
+        // Scaling across pool sizes on 5 * 10^7 ratings
+        int[] large = random.ints(50_000_000, 0, 1000).toArray();
+        long expected = minRewards(IntStream.of(large));
+        System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors());
+        for (int threads = 1; threads <= 32; threads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            long start = System.nanoTime();
+            long result = minRewardsParallel(large, pool, threads * 4);
+            long elapsed = System.nanoTime() - start;
+            pool.shutdown();
+            System.out.println(threads + " threads: " + elapsed / 1_000_000 + " ms"
+                    + (result == expected ? "" : " (MISMATCH)"));
+        }
+
+        // Online mode: random updates, inserts and deletes against recomputation
+        java.util.List<Integer> mirror = new java.util.ArrayList<>();
+        RewardTree tree = new RewardTree(new int[0]);
+        int onlineMismatches = 0;
+        for (int op = 0; op < 20_000; op++) {
+            int choice = random.nextInt(4);
+            if (mirror.isEmpty() || choice == 0) {
+                int index = random.nextInt(mirror.size() + 1), rating = random.nextInt(6);
+                tree.insert(index, rating);
+                mirror.add(index, rating);
+            } else if (choice == 1) {
+                int index = random.nextInt(mirror.size());
+                tree.delete(index);
+                mirror.remove(index);
+            } else {
+                int index = random.nextInt(mirror.size()), rating = random.nextInt(6);
+                tree.update(index, rating);
+                mirror.set(index, rating);
+            }
+            int[] current = mirror.stream().mapToInt(Integer::intValue).toArray();
+            if (tree.total() != minRewards(IntStream.of(current)))
+                onlineMismatches++;
+            if (!mirror.isEmpty()) {
+                int index = random.nextInt(mirror.size());
+                if (tree.reward(index) != rewardOf(current, index))
+                    onlineMismatches++;
+            }
+        }
+        System.out.println("Online mismatches: " + onlineMismatches);
+
+        // Throughput: 10^5 point updates on 10^6 employees
+        RewardTree big = new RewardTree(random.ints(1_000_000, 0, 1000).toArray());
+        long updateStart = System.nanoTime();
+        for (int op = 0; op < 100_000; op++) {
+            big.update(random.nextInt(1_000_000), random.nextInt(1000));
+        }
+        System.out.println("10^5 updates on 10^6 employees: " + (System.nanoTime() - updateStart) / 1_000_000
+                + " ms, total = " + big.total());
+
+        // Graph mode: a path graph is the original problem
+        int[] pathRatings = random.ints(1000, 0, 10).toArray();
+        int[][] path = gridAdjacency(1, pathRatings.length);
+        System.out.println("Path graph matches array: "
+                + (minRewardsOnGraph(pathRatings, path[0], path[1]) == minRewards(pathRatings)));
+
+        // Reporting tree: a manager (rating 5) with reports rated 3, 7 and 1, and the 7 with a report rated 2
+        int[] treeRatings = { 5, 3, 7, 1, 2 };
+        int[] treeOffsets = { 0, 3, 4, 6, 7, 8 };
+        int[] treeNeighbors = { 1, 2, 3, 0, 0, 4, 0, 2 };
+        System.out.println("Reporting tree: " + minRewardsOnGraph(treeRatings, treeOffsets, treeNeighbors)); // 8
+
+        // Seating grid 2000 x 2000, sequential and frontier-parallel
+        int[][] grid = gridAdjacency(2000, 2000);
+        int[] seatRatings = random.ints(2000 * 2000, 0, 100).toArray();
+        long gridStart = System.nanoTime();
+        long gridTotal = minRewardsOnGraph(seatRatings, grid[0], grid[1]);
+        long gridSequential = System.nanoTime() - gridStart;
+        gridStart = System.nanoTime();
+        long gridParallel = minRewardsOnGraphParallel(seatRatings, grid[0], grid[1], ForkJoinPool.commonPool());
+        System.out.println("2000 x 2000 grid: " + gridTotal + " in " + gridSequential / 1_000_000 + " ms, parallel "
+                + (gridParallel == gridTotal ? "matches" : "DIFFERS") + " in "
+                + (System.nanoTime() - gridStart) / 1_000_000 + " ms");
+
+        // Ratings read from a binary file
+        try {
+            Path file = java.nio.file.Files.createTempFile("ratings", ".bin");
+            java.nio.ByteBuffer bytes = java.nio.ByteBuffer.allocate(ratings5.length * Integer.BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            for (int rating : ratings5) {
+                bytes.putInt(rating);
+            }
+            java.nio.file.Files.write(file, bytes.array());
+            System.out.println("Test Case 5 (file): " + minRewards(file)); // Same as the array method
+            java.nio.file.Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.out.println("Ratings file I/O failed: " + e.getMessage());
+        }
+    }
+
+    // Function to build the CSR adjacency (offsets, neighbors) of a rows x cols seating grid
+    private static int[][] gridAdjacency(int rows, int cols) {
+        int n = rows * cols;
+        int[] offsets = new int[n + 1];
+        int[] neighbors = new int[4 * n];
+        int edges = 0;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                offsets[r * cols + c] = edges;
+                if (r > 0)
+                    neighbors[edges++] = (r - 1) * cols + c;
+                if (c > 0)
+                    neighbors[edges++] = r * cols + c - 1;
+                if (c < cols - 1)
+                    neighbors[edges++] = r * cols + c + 1;
+                if (r < rows - 1)
+                    neighbors[edges++] = (r + 1) * cols + c;
+            }
+        }
+        offsets[n] = edges;
+        return new int[][] { offsets, java.util.Arrays.copyOf(neighbors, edges) };
+    }
+
+    // Function to compute one employee's reward directly, as max(L, R)
+    private static long rewardOf(int[] ratings, int index) {
+        int left = index, right = index;
+        while (left > 0 && ratings[left] > ratings[left - 1]) {
+            left--;
+        }
+        while (right < ratings.length - 1 && ratings[right] > ratings[right + 1]) {
+            right++;
+        }
+        return Math.max(index - left, right - index) + 1;
     }
 }
 
@@ -152,4 +970,26 @@ public class Question2a {
  * - After left to right: [1, 2, 1, 2]
  * - After right to left: [1, 3, 1, 2]
  * - Total rewards = 1 + 3 + 1 + 2 = 7
+ *
+ * Streaming Mode:
+ * - Matches the two-pass method on 10,000 random rating arrays (IntStream and iterator)
+ * - 70,000 ascending ratings: the int total overflows, the streaming total is 2450035000
+ * - Test Case 5 read from a binary file: same total as the array method (6)
+ *
+ * Parallel Mode:
+ * - Matches the sequential result on 5,000 random arrays for every chunk count from 1 to 12
+ *   (many equal ratings, long slopes and slopes crossing several chunks)
+ * - main times 5 * 10^7 ratings on pools of 1, 2, 4, ..., 32 threads; the speed-up is bounded
+ *   by the number of available processors, which it prints alongside
+ *
+ * Online Mode:
+ * - 20,000 random updates, inserts and deletes: the total matches a full recomputation and a
+ *   random employee's reward matches max(L, R) after every operation
+ * - 10^5 point updates on 10^6 employees run in O(log n) each instead of O(n)
+ *
+ * Graph Mode:
+ * - A path graph gives the same total as the array method
+ * - Reporting tree 5 -> {3, 7 -> {2}, 1}: rewards 2, 1, 3, 1, 1 = 8 (the 7 outranks the 5,
+ *   which outranks the 3 and the 1)
+ * - 2000 x 2000 seating grid: the frontier-parallel sweep matches the sequential Kahn sweep
  */
\ No newline at end of file
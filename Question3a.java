@@ -29,53 +29,994 @@ Determine the minimum total cost to connect all devices in the network
  * 
  * Time Complexity: O(E log E) (sorting edges) + O(E α(N)) (Union-Find) ~ O(E log E)
  * Space Complexity: O(N) (for parent and rank arrays in Union-Find)
+ *
+ * Primitive Edge Store (minTotalCostFast):
+ * - Edges live in three int arrays (from, to, cost) instead of one int[3] object per edge, so
+ *   5 * 10^7 connections cost 12 bytes each and no per-edge garbage
+ * - Edges are sorted by an LSD radix sort on cost (8-bit digits, stable, sign bit flipped so
+ *   negative costs order correctly); digits that are equal for every edge are skipped
+ * - find uses iterative path halving, so long chains cannot overflow the stack
+ * - The total is accumulated in a long, since n + m costs can exceed the int range
+ *
+ * Time Complexity: O(E) for the sort (at most 4 passes) + O(E α(N)) for Kruskal
+ * Space Complexity: O(E) for the edge arrays and their radix buffer
+ *
+ * Parallel Boruvka (minTotalCostParallel):
+ * - The module node 0 is an ordinary vertex; each round every live edge offers itself, in
+ *   parallel, as the cheapest edge of both endpoint components (a CAS-min on packed
+ *   (cost, index) keys in an atomic array)
+ * - Edges are ordered by (cost, index), so the chosen edges never close a cycle, and the total
+ *   equals Kruskal's total (every minimum spanning tree has the same weight)
+ * - The chosen edges are merged in parallel through the lock-free UnionFind.Concurrent,
+ *   component roots are refreshed, and edges that became internal are filtered out, so later
+ *   rounds scan fewer edges
+ * - Each round at least halves the number of components, so there are O(log N) rounds
+ *
+ * Time Complexity: O(E log N / p + N log N) on p cores
+ * Space Complexity: O(E + N)
+ *
+ * Semi-External Kruskal (minTotalCostExternal):
+ * - Connections are read from a binary file of little-endian (device1, device2, cost) int
+ *   triples, so they never have to fit in the heap
+ * - Runs of R connections are read through a small direct buffer, radix-sorted in a reusable
+ *   EdgeList and written to a temporary file; nothing is memory-mapped, so the temporary files
+ *   can be deleted as soon as their channels close (deletion is best-effort, falling back to
+ *   deleteOnExit)
+ * - While more than F = 64 runs remain, groups of F runs are merged into runs F times longer,
+ *   alternating between two temporary files; then the last runs and the sorted module edges are
+ *   merged with a primitive min-heap of (cost, run) keys and fed straight into Kruskal, which
+ *   stops after n edges
+ * - Every open run has its own 48 KiB buffer, so the heap holds only the union-find, the module
+ *   edges, one run of R = max(2^20, N + 1) connections and F buffers (about 3 MiB): O(N) for
+ *   any number of connections
+ *
+ * Time Complexity: O(E log E) comparisons in total, plus 2 + ceil(log_F(E / R)) sequential
+ *                  passes over the file
+ * Space Complexity: O(N + R + F) heap = O(N) for the default R and F, O(E) temporary disk
+ *
+ * Module Pricing Scenarios (PricingScenarios):
+ * - A connection outside the minimum spanning forest of the connections alone is the most
+ *   expensive edge on some cycle of connections, so adding module edges never makes it useful
+ *   (cycle property); that forest is computed once with the radix-sorted Kruskal
+ * - Each price vector then runs Kruskal on at most n - 1 forest edges (already sorted) merged
+ *   with the n module edges (radix-sorted per scenario), and reports the devices whose module
+ *   edge was taken; on equal costs a connection is preferred to a module
+ * - Scenarios are independent and are solved in parallel
+ *
+ * Time Complexity: O(E) once, then O(N α(N)) per scenario (O(N log N) with a comparison sort)
+ * Space Complexity: O(N) per scenario in flight
+ *
+ * Dynamic Network (DynamicNetwork):
+ * - The current tree (module edges included) is kept in a link-cut tree where every edge is a
+ *   node of its own, so the heaviest edge on the path between two devices is one query
+ * - A new connection, or a cheaper non-tree edge, replaces the heaviest edge on its cycle if
+ *   it is cheaper; a tree edge that gets cheaper just updates its weight
+ * - Removing or raising a tree edge is the fallback case: the edge is cut, both sides are
+ *   searched in lockstep until the smaller one is exhausted, and the cheapest edge leaving it
+ *   reconnects the tree (by the cut property); removing or raising a non-tree edge changes
+ *   nothing
+ *
+ * Time Complexity: O(log N) amortised per insert or price drop; O(size of the smaller side,
+ *                  in incident edges) for the fallback, which is O(E) in the worst case
+ * Space Complexity: O(N + E)
  */
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
 
 class MinimumNetworkCost {
 
-    // Disjoint Set Union-Find Data Structure
-    static class DSU {
-        int[] parent, rank;
+    // Structure-of-arrays edge store: edge e joins from[e] and to[e] at cost[e]
+    static class EdgeList {
+        int[] from, to, cost;
+        int size;
 
-        DSU(int n) {
-            parent = new int[n];
-            rank = new int[n];
+        EdgeList(int capacity) {
+            from = new int[capacity];
+            to = new int[capacity];
+            cost = new int[capacity];
+        }
+
+        // Module edges (0, i) first, then the connections, as in minTotalCost
+        static EdgeList of(int n, int[] modules, int[][] connections) {
+            EdgeList edges = new EdgeList(n + connections.length);
             for (int i = 0; i < n; i++) {
-                parent[i] = i; // Each node is its own parent initially
-                rank[i] = 1; // Rank starts at 1
+                edges.add(0, i + 1, modules[i]);
             }
+            for (int[] connection : connections) {
+                edges.add(connection[0], connection[1], connection[2]);
+            }
+            return edges;
         }
 
-        // Find function with path compression
-        int find(int x) {
-            if (parent[x] != x) {
-                parent[x] = find(parent[x]); // Path compression
+        void add(int u, int v, int c) {
+            if (size == from.length) {
+                int capacity = Math.max(16, size * 2);
+                from = Arrays.copyOf(from, capacity);
+                to = Arrays.copyOf(to, capacity);
+                cost = Arrays.copyOf(cost, capacity);
             }
-            return parent[x];
+            from[size] = u;
+            to[size] = v;
+            cost[size] = c;
+            size++;
         }
 
-        // Union by rank
-        boolean union(int x, int y) {
-            int rootX = find(x);
-            int rootY = find(y);
+        // LSD radix sort on cost, one byte per pass; stable, so equal costs keep their order
+        void sortByCost() {
+            int[] fromBuffer = new int[size], toBuffer = new int[size], costBuffer = new int[size];
+            int[] count = new int[257];
+            for (int shift = 0; shift < 32; shift += 8) {
+                Arrays.fill(count, 0);
+                for (int e = 0; e < size; e++) {
+                    count[digit(cost[e], shift) + 1]++;
+                }
+                if (count[digit(cost[0], shift) + 1] == size)
+                    continue; // Every edge has the same digit here
 
-            if (rootX == rootY)
-                return false; // Already in the same set
+                for (int d = 0; d < 256; d++) {
+                    count[d + 1] += count[d]; // Start offset of each digit
+                }
+                for (int e = 0; e < size; e++) {
+                    int at = count[digit(cost[e], shift)]++;
+                    fromBuffer[at] = from[e];
+                    toBuffer[at] = to[e];
+                    costBuffer[at] = cost[e];
+                }
 
-            if (rank[rootX] > rank[rootY]) {
-                parent[rootY] = rootX;
-            } else if (rank[rootX] < rank[rootY]) {
-                parent[rootX] = rootY;
-            } else {
-                parent[rootY] = rootX;
-                rank[rootX]++;
+                // Swap the buffers in; the old arrays become the next pass's buffers
+                int[] swap = from;
+                from = fromBuffer;
+                fromBuffer = swap;
+                swap = to;
+                to = toBuffer;
+                toBuffer = swap;
+                swap = cost;
+                cost = costBuffer;
+                costBuffer = swap;
+            }
+        }
+
+        // Byte of the cost at the shift, with the sign bit flipped so negatives sort first
+        private static int digit(int c, int shift) {
+            return ((c ^ Integer.MIN_VALUE) >>> shift) & 0xFF;
+        }
+    }
+
+    // Function to run Kruskal's algorithm over edges already sorted by cost; returns the long total
+    static long kruskal(int n, EdgeList edges) {
+        UnionFind dsu = new UnionFind(n + 1);
+        long totalCost = 0;
+        int edgesUsed = 0;
+        for (int e = 0; e < edges.size && edgesUsed < n; e++) {
+            if (dsu.union(edges.from[e], edges.to[e])) {
+                totalCost += edges.cost[e];
+                edgesUsed++;
+            }
+        }
+        return totalCost;
+    }
+
+    // Function to find the minimum total cost with primitive edge arrays and a radix sort
+    public static long minTotalCostFast(int n, int[] modules, int[][] connections) {
+        EdgeList edges = EdgeList.of(n, modules, connections);
+        if (edges.size > 0)
+            edges.sortByCost();
+        return kruskal(n, edges);
+    }
+
+    // Function to find the minimum total cost with Boruvka rounds on the common pool
+    public static long minTotalCostParallel(int n, int[] modules, int[][] connections) {
+        return minTotalCostParallel(n, modules, connections, ForkJoinPool.commonPool());
+    }
+
+    // Function to find the minimum total cost with Boruvka rounds on the given pool
+    public static long minTotalCostParallel(int n, int[] modules, int[][] connections, ForkJoinPool pool) {
+        EdgeList edges = EdgeList.of(n, modules, connections);
+        return pool.submit(() -> boruvka(n, edges)).join();
+    }
+
+    // Function to run parallel Boruvka rounds over all n + 1 vertices (device 0 is the module node)
+    static long boruvka(int n, EdgeList edges) {
+        UnionFind.Concurrent components = new UnionFind.Concurrent(n + 1);
+        int[] root = new int[n + 1];
+        Arrays.setAll(root, v -> v);
+        long[] key = new long[edges.size]; // (cost, index) packed so one comparison orders edges
+        Arrays.parallelSetAll(key, e -> ((long) edges.cost[e] << 32) | e);
+        AtomicLongArray cheapest = new AtomicLongArray(n + 1);
+        int[] live = IntStream.range(0, edges.size).parallel()
+                .filter(e -> edges.from[e] != edges.to[e]).toArray();
+        long totalCost = 0;
+
+        while (live.length > 0) {
+            for (int v = 0; v <= n; v++) {
+                cheapest.lazySet(v, Long.MAX_VALUE);
+            }
+
+            // Every live edge offers itself to both endpoint components
+            final int[] edgesThisRound = live;
+            IntStream.range(0, edgesThisRound.length).parallel().forEach(k -> {
+                int e = edgesThisRound[k];
+                offerCheapest(cheapest, root[edges.from[e]], key[e]);
+                offerCheapest(cheapest, root[edges.to[e]], key[e]);
+            });
+
+            // Merge along the chosen edges from all threads; an edge chosen by both of its
+            // components only wins one union, so it counts once
+            totalCost += IntStream.rangeClosed(0, n).parallel().mapToLong(v -> {
+                long chosen = cheapest.get(v);
+                int e = (int) chosen;
+                return chosen != Long.MAX_VALUE && components.union(edges.from[e], edges.to[e]) ? edges.cost[e] : 0;
+            }).sum();
+
+            // Refresh roots, then drop edges that became internal
+            IntStream.rangeClosed(0, n).parallel().forEach(v -> root[v] = components.find(v));
+            live = Arrays.stream(edgesThisRound).parallel()
+                    .filter(e -> root[edges.from[e]] != root[edges.to[e]]).toArray();
+        }
+        return totalCost;
+    }
+
+    // Function to lower a component's cheapest edge key with a CAS loop
+    private static void offerCheapest(AtomicLongArray cheapest, int component, long key) {
+        long current;
+        while (key < (current = cheapest.get(component)) && !cheapest.compareAndSet(component, current, key)) {
+            // Another thread changed the entry; re-read and retry
+        }
+    }
+
+    private static final int CONNECTION_BYTES = 3 * Integer.BYTES;
+    private static final int MAX_RUN = 1 << 26; // Largest run sorted in memory
+    private static final int MERGE_FAN_IN = 64; // Runs merged at once
+    private static final int BLOCK = 1 << 12; // Connections per I/O buffer (48 KiB)
+
+    // Function to write connections as little-endian (device1, device2, cost) int triples
+    public static void writeConnections(Path file, int[][] connections) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            RunWriter writer = new RunWriter(channel, 0);
+            for (int[] connection : connections) {
+                writer.put(connection[0], connection[1], connection[2]);
+            }
+            writer.flush();
+        }
+    }
+
+    // Function to find the minimum total cost for connections stored in a file, with runs of
+    // max(2^20, n + 1) connections
+    public static long minTotalCostExternal(int n, int[] modules, Path connections) throws IOException {
+        return minTotalCostExternal(n, modules, connections, Math.max(1 << 20, n + 1));
+    }
+
+    // Function to find the minimum total cost for connections stored in a file, sorting them
+    // externally in runs of runLength connections
+    public static long minTotalCostExternal(int n, int[] modules, Path connections, int runLength)
+            throws IOException {
+        return minTotalCostExternal(n, modules, connections, runLength, MERGE_FAN_IN);
+    }
+
+    private static long minTotalCostExternal(int n, int[] modules, Path connections, int runLength, int fanIn)
+            throws IOException {
+        if (runLength < 1)
+            throw new IllegalArgumentException("Run length must be positive: " + runLength);
+        runLength = Math.min(runLength, MAX_RUN);
+
+        // Runs alternate between two temporary files; every pass keeps each connection at the
+        // same offset, so run boundaries are multiples of the current run size
+        Path[] runFiles = { Files.createTempFile("connection-runs", ".bin"), null };
+        try {
+            long m;
+            RunReader[] readers = new RunReader[fanIn];
+
+            // Phase 1: sort each run in memory and write it at the same offset
+            try (FileChannel input = FileChannel.open(connections, StandardOpenOption.READ);
+                    FileChannel output = FileChannel.open(runFiles[0], StandardOpenOption.WRITE)) {
+                if (input.size() % CONNECTION_BYTES != 0)
+                    throw new IOException("Not a list of connections: " + connections);
+                m = input.size() / CONNECTION_BYTES;
+                EdgeList run = new EdgeList((int) Math.min(runLength, m));
+                RunReader in = new RunReader();
+                RunWriter out = new RunWriter(output, 0);
+                for (long first = 0; first < m; first += runLength) {
+                    in.open(input, first, Math.min(runLength, m - first));
+                    run.size = 0;
+                    while (in.advance()) {
+                        run.add(in.from, in.to, in.cost);
+                    }
+                    run.sortByCost();
+                    for (int e = 0; e < run.size; e++) {
+                        out.put(run.from[e], run.to[e], run.cost[e]);
+                    }
+                }
+                out.flush();
+            }
+
+            // Phase 2: merge groups of fanIn runs until at most fanIn runs are left
+            long runSize = runLength;
+            int current = 0;
+            long[] heap = new long[fanIn + 1];
+            while ((m + runSize - 1) / runSize > fanIn) {
+                if (runFiles[1] == null)
+                    runFiles[1] = Files.createTempFile("connection-runs", ".bin");
+                long merged = runSize * fanIn;
+                try (FileChannel input = FileChannel.open(runFiles[current], StandardOpenOption.READ);
+                        FileChannel output = FileChannel.open(runFiles[1 - current], StandardOpenOption.WRITE)) {
+                    RunWriter out = new RunWriter(output, 0);
+                    for (long first = 0; first < m; first += merged) {
+                        int sources = openRuns(readers, input, first, Math.min(first + merged, m), runSize);
+                        int heapSize = 0;
+                        for (int r = 0; r < sources; r++) {
+                            if (readers[r].advance()) {
+                                heap[heapSize] = ((long) readers[r].cost << 32) | r;
+                                siftUp(heap, heapSize++);
+                            }
+                        }
+                        while (heapSize > 0) {
+                            RunReader reader = readers[(int) heap[0]];
+                            out.put(reader.from, reader.to, reader.cost);
+                            if (reader.advance())
+                                heap[0] = ((long) reader.cost << 32) | (int) heap[0];
+                            else
+                                heap[0] = heap[--heapSize];
+                            siftDown(heap, 0, heapSize);
+                        }
+                    }
+                    out.flush();
+                }
+                current = 1 - current;
+                runSize = merged;
+            }
+
+            // Phase 3: merge the last runs with the module edges (source runCount) into Kruskal
+            try (FileChannel input = FileChannel.open(runFiles[current], StandardOpenOption.READ)) {
+                int runCount = openRuns(readers, input, 0, m, runSize);
+                EdgeList moduleEdges = EdgeList.of(n, modules, new int[0][]);
+                if (moduleEdges.size > 0)
+                    moduleEdges.sortByCost();
+                int nextModule = 0;
+
+                // Min-heap of (cost, source); a source's current edge is its reader's connection
+                int heapSize = 0;
+                for (int r = 0; r < runCount; r++) {
+                    if (readers[r].advance()) {
+                        heap[heapSize] = ((long) readers[r].cost << 32) | r;
+                        siftUp(heap, heapSize++);
+                    }
+                }
+                if (n > 0) {
+                    heap[heapSize] = ((long) moduleEdges.cost[0] << 32) | runCount;
+                    siftUp(heap, heapSize++);
+                }
+
+                UnionFind dsu = new UnionFind(n + 1);
+                long totalCost = 0;
+                int edgesUsed = 0;
+                while (heapSize > 0 && edgesUsed < n) {
+                    int source = (int) heap[0];
+                    int u, v, c;
+                    boolean more;
+                    if (source == runCount) {
+                        u = moduleEdges.from[nextModule];
+                        v = moduleEdges.to[nextModule];
+                        c = moduleEdges.cost[nextModule];
+                        more = ++nextModule < moduleEdges.size;
+                        if (more)
+                            heap[0] = ((long) moduleEdges.cost[nextModule] << 32) | source;
+                    } else {
+                        RunReader reader = readers[source];
+                        u = reader.from;
+                        v = reader.to;
+                        c = reader.cost;
+                        more = reader.advance();
+                        if (more)
+                            heap[0] = ((long) reader.cost << 32) | source;
+                    }
+                    if (!more)
+                        heap[0] = heap[--heapSize];
+                    siftDown(heap, 0, heapSize);
+
+                    if (dsu.union(u, v)) {
+                        totalCost += c;
+                        edgesUsed++;
+                    }
+                }
+                return totalCost;
+            }
+        } finally {
+            for (Path file : runFiles) {
+                if (file != null)
+                    deleteQuietly(file);
+            }
+        }
+    }
+
+    // Function to point readers at the runs of runSize connections in [first, end); returns their count
+    private static int openRuns(RunReader[] readers, FileChannel channel, long first, long end, long runSize) {
+        int count = 0;
+        for (long start = first; start < end; start += runSize) {
+            if (readers[count] == null)
+                readers[count] = new RunReader();
+            readers[count++].open(channel, start, Math.min(runSize, end - start));
+        }
+        return count;
+    }
+
+    // Function to delete a temporary file; if the platform refuses (e.g. the file is still
+    // open elsewhere), it is left for deletion when the JVM exits instead of failing the caller
+    static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            file.toFile().deleteOnExit();
+        }
+    }
+
+    // Sequential reader of connections [first, first + count) of a file through its own small
+    // direct buffer (reused when the reader is reopened), so nothing stays mapped
+    private static final class RunReader {
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BLOCK * CONNECTION_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        private FileChannel channel;
+        private long position, end; // Byte offsets of the next unbuffered connection and the run end
+        int from, to, cost; // Current connection after advance()
+
+        void open(FileChannel channel, long first, long count) {
+            this.channel = channel;
+            position = first * CONNECTION_BYTES;
+            end = position + count * CONNECTION_BYTES;
+            buffer.clear().limit(0);
+        }
+
+        // Function to move to the next connection; returns false at the end of the run
+        boolean advance() throws IOException {
+            if (!buffer.hasRemaining()) {
+                if (position == end)
+                    return false;
+                buffer.clear().limit((int) Math.min(buffer.capacity(), end - position));
+                while (buffer.hasRemaining()) {
+                    int read = channel.read(buffer, position);
+                    if (read < 0)
+                        throw new EOFException("Connection file ended early");
+                    position += read;
+                }
+                buffer.flip();
             }
+            from = buffer.getInt();
+            to = buffer.getInt();
+            cost = buffer.getInt();
             return true;
         }
     }
 
+    // Buffered sequential writer of connections from a byte offset of a file
+    private static final class RunWriter {
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BLOCK * CONNECTION_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        private final FileChannel channel;
+        private long position;
+
+        RunWriter(FileChannel channel, long position) {
+            this.channel = channel;
+            this.position = position;
+        }
+
+        void put(int from, int to, int cost) throws IOException {
+            if (!buffer.hasRemaining())
+                flush();
+            buffer.putInt(from).putInt(to).putInt(cost);
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            buffer.clear();
+        }
+    }
+
+    private static void siftUp(long[] heap, int slot) {
+        while (slot > 0 && heap[(slot - 1) / 2] > heap[slot]) {
+            int parent = (slot - 1) / 2;
+            long swap = heap[parent];
+            heap[parent] = heap[slot];
+            heap[slot] = swap;
+            slot = parent;
+        }
+    }
+
+    private static void siftDown(long[] heap, int slot, int size) {
+        while (true) {
+            int smallest = slot, left = 2 * slot + 1;
+            if (left < size && heap[left] < heap[smallest])
+                smallest = left;
+            if (left + 1 < size && heap[left + 1] < heap[smallest])
+                smallest = left + 1;
+            if (smallest == slot)
+                return;
+            long swap = heap[smallest];
+            heap[smallest] = heap[slot];
+            heap[slot] = swap;
+            slot = smallest;
+        }
+    }
+
+    // Fixed connections whose minimum spanning forest is reused across module price vectors
+    public static class PricingScenarios {
+        private final int n;
+        private final EdgeList forest; // Sorted by cost
+
+        public PricingScenarios(int n, int[][] connections) {
+            this.n = n;
+            EdgeList edges = EdgeList.of(0, new int[0], connections);
+            if (edges.size > 0)
+                edges.sortByCost();
+            forest = new EdgeList(Math.max(0, n - 1));
+            UnionFind dsu = new UnionFind(n + 1);
+            for (int e = 0; e < edges.size && forest.size < n - 1; e++) {
+                if (dsu.union(edges.from[e], edges.to[e]))
+                    forest.add(edges.from[e], edges.to[e], edges.cost[e]);
+            }
+        }
+
+        // Number of connections kept in the spanning forest
+        public int forestSize() {
+            return forest.size;
+        }
+
+        // Outcome of one price vector
+        public static final class Result {
+            public final long totalCost;
+            public final int[] devicesWithModules; // Ascending device numbers (1-based)
+
+            Result(long totalCost, int[] devicesWithModules) {
+                this.totalCost = totalCost;
+                this.devicesWithModules = devicesWithModules;
+            }
+        }
+
+        // Function to solve one price vector (modules[i - 1] is the module price of device i)
+        public Result solve(int[] modules) {
+            if (modules.length != n)
+                throw new IllegalArgumentException("Expected " + n + " module prices, got " + modules.length);
+            EdgeList moduleEdges = EdgeList.of(n, modules, new int[0][]);
+            if (n > 0)
+                moduleEdges.sortByCost();
+
+            UnionFind dsu = new UnionFind(n + 1);
+            boolean[] hasModule = new boolean[n + 1];
+            int modulesUsed = 0, edgesUsed = 0;
+            long totalCost = 0;
+            int f = 0, g = 0;
+            while (edgesUsed < n) {
+                // Merge the two sorted lists, connections first on equal cost
+                boolean takeForest = g == moduleEdges.size
+                        || (f < forest.size && forest.cost[f] <= moduleEdges.cost[g]);
+                if (takeForest) {
+                    if (dsu.union(forest.from[f], forest.to[f])) {
+                        totalCost += forest.cost[f];
+                        edgesUsed++;
+                    }
+                    f++;
+                } else {
+                    if (dsu.union(0, moduleEdges.to[g])) {
+                        totalCost += moduleEdges.cost[g];
+                        hasModule[moduleEdges.to[g]] = true;
+                        modulesUsed++;
+                        edgesUsed++;
+                    }
+                    g++;
+                }
+            }
+
+            int[] devices = new int[modulesUsed];
+            for (int device = 1, k = 0; device <= n; device++) {
+                if (hasModule[device])
+                    devices[k++] = device;
+            }
+            return new Result(totalCost, devices);
+        }
+
+        // Function to solve many price vectors in parallel on the common pool
+        public Result[] solveAll(int[][] scenarios) {
+            return solveAll(scenarios, ForkJoinPool.commonPool());
+        }
+
+        // Function to solve many price vectors in parallel on the given pool
+        public Result[] solveAll(int[][] scenarios, ForkJoinPool pool) {
+            return pool.submit(() -> IntStream.range(0, scenarios.length).parallel()
+                    .mapToObj(s -> solve(scenarios[s])).toArray(Result[]::new)).join();
+        }
+    }
+
+    // Network whose minimum cost is kept up to date as connections and module prices change.
+    // Vertex 0 is the module node; edge k < n is device k + 1's module, edge n + j is connection j
+    public static class DynamicNetwork {
+        private final int n;
+        private final EdgeList edges = new EdgeList(16);
+        private boolean[] alive = new boolean[16], inTree = new boolean[16];
+        private long totalCost;
+
+        // Edges incident to each vertex (removed ones are dropped lazily), and the scratch state of
+        // the two-sided search used when a tree edge goes away
+        private final int[][] incident;
+        private final int[] degree, mark;
+        private final int[][] queue;
+        private final int[] queueEnd = new int[2];
+        private int stamp;
+
+        // Link-cut tree over vertices 0..n and one node per edge (node n + 1 + e), so the
+        // heaviest edge on a tree path is a path aggregate
+        private int[] left, right, parent, heaviest;
+        private boolean[] flipped;
+
+        public DynamicNetwork(int n, int[] modules, int[][] connections) {
+            this.n = n;
+            int nodes = n + 1 + n + connections.length;
+            left = new int[nodes];
+            right = new int[nodes];
+            parent = new int[nodes];
+            heaviest = new int[nodes];
+            flipped = new boolean[nodes];
+            incident = new int[n + 1][4];
+            degree = new int[n + 1];
+            mark = new int[n + 1];
+            queue = new int[2][n + 1];
+            for (int v = 0; v <= n; v++) {
+                left[v] = right[v] = parent[v] = -1;
+                heaviest[v] = v;
+            }
+            for (int i = 0; i < n; i++) {
+                addEdge(0, i + 1, modules[i]);
+            }
+            for (int[] connection : connections) {
+                addEdge(connection[0], connection[1], connection[2]);
+            }
+
+            // Initial tree by Kruskal over (cost, index) keys
+            long[] order = new long[edges.size];
+            Arrays.setAll(order, e -> ((long) edges.cost[e] << 32) | e);
+            Arrays.sort(order);
+            UnionFind dsu = new UnionFind(n + 1);
+            for (long key : order) {
+                int e = (int) key;
+                if (dsu.union(edges.from[e], edges.to[e]))
+                    linkEdge(e);
+            }
+        }
+
+        // Function to add a connection; returns its id
+        public int addConnection(int device1, int device2, int cost) {
+            int e = addEdge(device1, device2, cost);
+            offer(e);
+            return e - n;
+        }
+
+        // Function to remove a connection by id
+        public void removeConnection(int id) {
+            int e = connection(id);
+            alive[e] = false;
+            if (inTree[e])
+                replace(e);
+        }
+
+        // Function to change the cost of a connection
+        public void setConnectionCost(int id, int cost) {
+            reprice(connection(id), cost);
+        }
+
+        // Function to change the module price of a device (1-based)
+        public void setModulePrice(int device, int price) {
+            if (device < 1 || device > n)
+                throw new IllegalArgumentException("No such device: " + device);
+            reprice(device - 1, price);
+        }
+
+        public long totalCost() {
+            return totalCost;
+        }
+
+        // Function to list the ids of the connections in the current tree, ascending
+        public int[] chosenConnections() {
+            return IntStream.range(n, edges.size).filter(e -> inTree[e]).map(e -> e - n).toArray();
+        }
+
+        // Function to list the devices whose module is in the current tree, ascending
+        public int[] devicesWithModules() {
+            return IntStream.range(0, n).filter(e -> inTree[e]).map(e -> e + 1).toArray();
+        }
+
+        // Function to check whether a connection id is currently present
+        public boolean isConnection(int id) {
+            return id >= 0 && n + id < edges.size && alive[n + id];
+        }
+
+        private int connection(int id) {
+            if (!isConnection(id))
+                throw new IllegalArgumentException("No such connection: " + id);
+            return n + id;
+        }
+
+        private int addEdge(int u, int v, int cost) {
+            if (u < 0 || u > n || v < 0 || v > n)
+                throw new IllegalArgumentException("No such device: " + (u < 0 || u > n ? u : v));
+            int e = edges.size;
+            edges.add(u, v, cost);
+            if (e == alive.length) {
+                alive = Arrays.copyOf(alive, 2 * e);
+                inTree = Arrays.copyOf(inTree, 2 * e);
+            }
+            alive[e] = true;
+            attach(u, e);
+            if (u != v)
+                attach(v, e);
+            int node = n + 1 + e;
+            if (node >= parent.length) {
+                int capacity = Math.max(node + 1, 2 * parent.length);
+                left = Arrays.copyOf(left, capacity);
+                right = Arrays.copyOf(right, capacity);
+                parent = Arrays.copyOf(parent, capacity);
+                heaviest = Arrays.copyOf(heaviest, capacity);
+                flipped = Arrays.copyOf(flipped, capacity);
+            }
+            return e;
+        }
+
+        // Function to record edge e in the incidence list of device x
+        private void attach(int x, int e) {
+            if (degree[x] == incident[x].length)
+                incident[x] = Arrays.copyOf(incident[x], 2 * degree[x]);
+            incident[x][degree[x]++] = e;
+        }
+
+        // Function to bring a non-tree edge into the tree if it beats the heaviest edge on its cycle
+        private void offer(int e) {
+            int u = edges.from[e], v = edges.to[e];
+            if (u == v)
+                return;
+            int worst = pathHeaviest(u, v) - n - 1;
+            if (edges.cost[worst] <= edges.cost[e])
+                return;
+            unlinkEdge(worst);
+            linkEdge(e);
+        }
+
+        private void reprice(int e, int cost) {
+            int old = edges.cost[e];
+            if (!inTree[e]) {
+                edges.cost[e] = cost;
+                if (cost < old)
+                    offer(e);
+                return;
+            }
+
+            // A tree edge that gets cheaper stays; one that gets dearer may be replaced
+            int node = n + 1 + e;
+            access(node);
+            splay(node);
+            edges.cost[e] = cost;
+            update(node);
+            totalCost += (long) cost - old;
+            if (cost > old)
+                replace(e);
+        }
+
+        // Fallback for a tree edge that was removed or got dearer: cut it, find the smaller of the
+        // two sides, and reconnect them with the cheapest edge leaving it (possibly the same edge)
+        private void replace(int e) {
+            unlinkEdge(e);
+            int small = smallerSide(edges.from[e], edges.to[e]);
+            int best = -1;
+            for (int k = 0; k < queueEnd[small]; k++) {
+                int x = queue[small][k];
+                for (int i = 0; i < degree[x]; i++) {
+                    int f = incident[x][i], y = edges.from[f] == x ? edges.to[f] : edges.from[f];
+                    if (alive[f] && !inTree[f] && mark[y] != mark[x]
+                            && (best < 0 || edges.cost[f] < edges.cost[best]))
+                        best = f;
+                }
+            }
+            linkEdge(best); // Module edges keep every device reachable, so one always exists
+        }
+
+        // Function to search the tree from both ends of a cut edge, one incident edge at a time
+        // on each side, until one side is exhausted; that side is marked and left in its queue
+        private int smallerSide(int u, int v) {
+            int[] stamps = { ++stamp, ++stamp }, heads = new int[2], cursors = new int[2];
+            int[] starts = { u, v };
+            for (int s = 0; s < 2; s++) {
+                queue[s][0] = starts[s];
+                queueEnd[s] = 1;
+                mark[starts[s]] = stamps[s];
+            }
+            while (true) {
+                for (int s = 0; s < 2; s++) {
+                    // Skip vertices whose incident edges are all seen
+                    while (heads[s] < queueEnd[s] && cursors[s] == degree[queue[s][heads[s]]]) {
+                        heads[s]++;
+                        cursors[s] = 0;
+                    }
+                    if (heads[s] == queueEnd[s])
+                        return s;
+
+                    int x = queue[s][heads[s]], f = incident[x][cursors[s]];
+                    if (!alive[f]) {
+                        incident[x][cursors[s]] = incident[x][--degree[x]]; // Drop removed edges lazily
+                        continue;
+                    }
+                    cursors[s]++;
+                    int y = edges.from[f] == x ? edges.to[f] : edges.from[f];
+                    if (inTree[f] && mark[y] != stamps[s]) {
+                        mark[y] = stamps[s];
+                        queue[s][queueEnd[s]++] = y;
+                    }
+                }
+            }
+        }
+
+        private void linkEdge(int e) {
+            int node = n + 1 + e;
+            left[node] = right[node] = parent[node] = -1;
+            flipped[node] = false;
+            heaviest[node] = node;
+            link(edges.from[e], node);
+            link(node, edges.to[e]);
+            inTree[e] = true;
+            totalCost += edges.cost[e];
+        }
+
+        private void unlinkEdge(int e) {
+            int node = n + 1 + e;
+            cut(edges.from[e], node);
+            cut(node, edges.to[e]);
+            inTree[e] = false;
+            totalCost -= edges.cost[e];
+        }
+
+        // Weight of a node: edges weigh their cost, vertices weigh nothing
+        private long weight(int x) {
+            return x <= n ? Long.MIN_VALUE : edges.cost[x - n - 1];
+        }
+
+        private boolean isRoot(int x) {
+            int p = parent[x];
+            return p < 0 || (left[p] != x && right[p] != x);
+        }
+
+        private void update(int x) {
+            int best = x;
+            if (left[x] >= 0 && weight(heaviest[left[x]]) > weight(best))
+                best = heaviest[left[x]];
+            if (right[x] >= 0 && weight(heaviest[right[x]]) > weight(best))
+                best = heaviest[right[x]];
+            heaviest[x] = best;
+        }
+
+        private void pushDown(int x) {
+            if (!flipped[x])
+                return;
+            flip(left[x]);
+            flip(right[x]);
+            flipped[x] = false;
+        }
+
+        // Function to reverse a subtree lazily: swap its children and mark them for pushDown
+        private void flip(int x) {
+            if (x < 0)
+                return;
+            int swap = left[x];
+            left[x] = right[x];
+            right[x] = swap;
+            flipped[x] = !flipped[x];
+        }
+
+        private void rotate(int x) {
+            int p = parent[x], g = parent[p];
+            boolean pIsRoot = isRoot(p);
+            if (left[p] == x) {
+                left[p] = right[x];
+                if (right[x] >= 0)
+                    parent[right[x]] = p;
+                right[x] = p;
+            } else {
+                right[p] = left[x];
+                if (left[x] >= 0)
+                    parent[left[x]] = p;
+                left[x] = p;
+            }
+            parent[p] = x;
+            parent[x] = g;
+            if (!pIsRoot) {
+                if (left[g] == p) {
+                    left[g] = x;
+                } else {
+                    right[g] = x;
+                }
+            }
+            update(p);
+            update(x);
+        }
+
+        private int[] path = new int[64];
+
+        private void splay(int x) {
+            // Push pending flips down from the top of x's splay tree
+            int depth = 0;
+            for (int y = x;; y = parent[y]) {
+                if (depth == path.length)
+                    path = Arrays.copyOf(path, depth * 2);
+                path[depth++] = y;
+                if (isRoot(y))
+                    break;
+            }
+            while (depth > 0) {
+                pushDown(path[--depth]);
+            }
+
+            while (!isRoot(x)) {
+                int p = parent[x];
+                if (!isRoot(p)) {
+                    int g = parent[p];
+                    rotate((left[g] == p) == (left[p] == x) ? p : x);
+                }
+                rotate(x);
+            }
+        }
+
+        private void access(int x) {
+            int last = -1;
+            for (int y = x; y >= 0; y = parent[y]) {
+                splay(y);
+                right[y] = last;
+                update(y);
+                last = y;
+            }
+        }
+
+        private void makeRoot(int x) {
+            access(x);
+            splay(x);
+            int swap = left[x];
+            left[x] = right[x];
+            right[x] = swap;
+            flipped[x] = !flipped[x];
+        }
+
+        private void link(int x, int y) {
+            makeRoot(x);
+            parent[x] = y;
+        }
+
+        private void cut(int x, int y) {
+            makeRoot(x);
+            access(y);
+            splay(y);
+            left[y] = -1;
+            parent[x] = -1;
+            update(y);
+        }
+
+        // Function to find the heaviest edge node on the tree path between u and v
+        private int pathHeaviest(int u, int v) {
+            makeRoot(u);
+            access(v);
+            splay(v);
+            return heaviest[v];
+        }
+    }
+
     public static int minTotalCost(int n, int[] modules, int[][] connections) {
         List<int[]> edges = new ArrayList<>(); // List to store all possible edges
 
@@ -92,7 +1033,7 @@ class MinimumNetworkCost {
         // Sort edges by cost (Greedy approach for Kruskal's algorithm)
         edges.sort(Comparator.comparingInt(a -> a[2]));
 
-        DSU dsu = new DSU(n + 1); // DSU to manage connected components
+        UnionFind dsu = new UnionFind(n + 1); // Union-find to manage connected components
         int totalCost = 0; // Stores the final minimum cost
         int edgesUsed = 0; // Tracks how many edges are used in MST
 
@@ -127,5 +1068,359 @@ class MinimumNetworkCost {
         int[] modules3 = { 4, 2, 3, 1, 5 };
         int[][] connections3 = { { 1, 2, 2 }, { 2, 3, 2 }, { 3, 4, 2 }, { 4, 5, 2 }, { 1, 5, 10 } };
         System.out.println("Test Case 3: " + minTotalCost(n3, modules3, connections3)); // Output: 9
+
+        // Primitive edge store on the same cases and on random networks
+        System.out.println("Fast path: " + minTotalCostFast(n1, modules1, connections1) + ", "
+                + minTotalCostFast(n2, modules2, connections2) + ", " + minTotalCostFast(n3, modules3, connections3));
+        Random random = new Random(7);
+        int mismatches = 0;
+        for (int trial = 0; trial < 2_000; trial++) {
+            int n = 1 + random.nextInt(30);
+            int[] modules = random.ints(n, 0, 50).toArray();
+            int[][] connections = randomConnections(random, n, random.nextInt(4 * n), 50);
+            long expected = minTotalCost(n, modules, connections);
+            if (expected != minTotalCostFast(n, modules, connections)
+                    || expected != minTotalCostParallel(n, modules, connections))
+                mismatches++;
+        }
+        System.out.println("Mismatches against the list-based Kruskal (fast and parallel): " + mismatches);
+
+        // Semi-external Kruskal with tiny runs, so many runs are merged
+        int externalMismatches = 0;
+        try {
+            Path file = Files.createTempFile("connections", ".bin");
+            for (int trial = 0; trial < 300; trial++) {
+                int n = 1 + random.nextInt(30);
+                int[] modules = random.ints(n, -10, 50).toArray();
+                int[][] connections = randomConnections(random, n, random.nextInt(6 * n), 50);
+                writeConnections(file, connections);
+                if (minTotalCostFast(n, modules, connections)
+                        != minTotalCostExternal(n, modules, file, 1 + random.nextInt(8), 2 + random.nextInt(3)))
+                    externalMismatches++;
+            }
+            deleteQuietly(file);
+            System.out.println("Semi-external mismatches against the in-memory Kruskal: " + externalMismatches);
+        } catch (IOException e) {
+            System.out.println("Connection file I/O failed: " + e.getMessage());
+        }
+
+        // Pricing scenarios against a full Kruskal per price vector
+        int scenarioMismatches = 0;
+        for (int trial = 0; trial < 300; trial++) {
+            int n = 1 + random.nextInt(30);
+            int[][] connections = randomConnections(random, n, random.nextInt(6 * n), 50);
+            PricingScenarios scenarios = new PricingScenarios(n, connections);
+            int[][] prices = new int[5][];
+            for (int s = 0; s < prices.length; s++) {
+                prices[s] = random.ints(n, 0, 80).toArray();
+            }
+            PricingScenarios.Result[] results = scenarios.solveAll(prices);
+            for (int s = 0; s < prices.length; s++) {
+                // The chosen modules must connect every component of the forest exactly once
+                long moduleCost = 0;
+                for (int device : results[s].devicesWithModules) {
+                    moduleCost += prices[s][device - 1];
+                }
+                int[] onlyChosen = new int[n]; // Chosen modules are free, the others prohibitive
+                Arrays.fill(onlyChosen, Integer.MAX_VALUE / 4);
+                for (int device : results[s].devicesWithModules) {
+                    onlyChosen[device - 1] = 0;
+                }
+                long connectionCost = minTotalCostFast(n, onlyChosen, connections);
+                if (results[s].totalCost != minTotalCostFast(n, prices[s], connections)
+                        || moduleCost + connectionCost != results[s].totalCost)
+                    scenarioMismatches++;
+            }
+        }
+        System.out.println("Scenario mismatches against a full Kruskal per price vector: " + scenarioMismatches);
+        PricingScenarios.Result example = new PricingScenarios(n2, connections2).solve(modules2);
+        System.out.println("Test Case 2 as a scenario: " + example.totalCost + ", modules on "
+                + Arrays.toString(example.devicesWithModules)); // Output: 6, modules on [3]
+
+        // Dynamic network: random changes checked against a full Kruskal after each one
+        int dynamicMismatches = 0;
+        for (int trial = 0; trial < 200; trial++) {
+            int n = 1 + random.nextInt(20);
+            int[] modules = random.ints(n, 0, 60).toArray();
+            List<int[]> current = new ArrayList<>(Arrays.asList(randomConnections(random, n, random.nextInt(3 * n), 50)));
+            List<Integer> ids = new ArrayList<>();
+            for (int j = 0; j < current.size(); j++) {
+                ids.add(j);
+            }
+            DynamicNetwork network = new DynamicNetwork(n, modules, current.toArray(new int[0][]));
+            for (int step = 0; step < 100; step++) {
+                int action = random.nextInt(4);
+                if (action == 0 || current.isEmpty()) {
+                    int[] connection = randomConnections(random, n, 1, 50)[0];
+                    current.add(connection);
+                    ids.add(network.addConnection(connection[0], connection[1], connection[2]));
+                } else if (action == 1) {
+                    int k = random.nextInt(current.size());
+                    network.removeConnection(ids.remove(k));
+                    current.remove(k);
+                } else if (action == 2) {
+                    int k = random.nextInt(current.size()), cost = random.nextInt(50);
+                    current.set(k, new int[] { current.get(k)[0], current.get(k)[1], cost });
+                    network.setConnectionCost(ids.get(k), cost);
+                } else {
+                    int device = 1 + random.nextInt(n), price = random.nextInt(60);
+                    modules[device - 1] = price;
+                    network.setModulePrice(device, price);
+                }
+
+                // Same total, and the chosen edges are n edges adding up to it
+                long chosenCost = 0;
+                int[] chosen = network.chosenConnections(), withModules = network.devicesWithModules();
+                for (int id : chosen) {
+                    chosenCost += current.get(ids.indexOf(id))[2];
+                }
+                for (int device : withModules) {
+                    chosenCost += modules[device - 1];
+                }
+                long expected = minTotalCostFast(n, modules, current.toArray(new int[0][]));
+                if (network.totalCost() != expected || chosenCost != expected || chosen.length + withModules.length != n)
+                    dynamicMismatches++;
+            }
+        }
+        System.out.println("Dynamic network mismatches against a full Kruskal: " + dynamicMismatches);
+
+        // 20,000 random changes to a network of 10^5 devices and 5 * 10^5 connections
+        int devices = 100_000;
+        int[] prices = random.ints(devices, 0, 1_000_000).toArray();
+        int[][] links = randomConnections(random, devices, 500_000, 1_000_000);
+        DynamicNetwork planner = new DynamicNetwork(devices, prices, links);
+        int connectionCount = links.length;
+        long clock = System.nanoTime();
+        for (int change = 0; change < 20_000; change++) {
+            int kind = change % 4, id = random.nextInt(connectionCount);
+            if (kind == 0) {
+                planner.addConnection(1 + random.nextInt(devices), 1 + random.nextInt(devices), random.nextInt(1_000_000));
+                connectionCount++;
+            } else if (kind == 1 && planner.isConnection(id)) {
+                planner.removeConnection(id);
+            } else if (kind == 2 && planner.isConnection(id)) {
+                planner.setConnectionCost(id, random.nextInt(1_000_000));
+            } else if (kind == 3) {
+                planner.setModulePrice(1 + random.nextInt(devices), random.nextInt(1_000_000));
+            }
+        }
+        long perChange = (System.nanoTime() - clock) / 20_000 / 1_000;
+        clock = System.nanoTime();
+        minTotalCostFast(devices, prices, links);
+        System.out.println("Dynamic network: " + perChange + " us per change (total now " + planner.totalCost()
+                + "), one full Kruskal " + (System.nanoTime() - clock) / 1_000_000 + " ms");
+
+        // Costs near the int limit: the int total overflows, the long total does not
+        int[] expensive = { 2_000_000_000, 2_000_000_000 };
+        System.out.println("Expensive modules: int " + minTotalCost(2, expensive, new int[0][]) + ", long "
+                + minTotalCostFast(2, expensive, new int[0][]));
+
+        // Throughput and garbage collection on 10^6 devices and 5 * 10^6 connections
+        int n = 1_000_000;
+        int[] modules = random.ints(n, 0, 1_000).toArray(); // Small costs keep the int total exact
+        int[][] connections = randomConnections(random, n, 5_000_000, 1_000);
+        for (int round = 0; round < 2; round++) {
+            long gc = gcMillis(), start = System.nanoTime();
+            long listTotal = minTotalCost(n, modules, connections);
+            long listTime = (System.nanoTime() - start) / 1_000_000, listGc = gcMillis() - gc;
+            gc = gcMillis();
+            start = System.nanoTime();
+            long fastTotal = minTotalCostFast(n, modules, connections);
+            long fastTime = (System.nanoTime() - start) / 1_000_000, fastGc = gcMillis() - gc;
+            System.out.println("Round " + round + ": list " + listTotal + " in " + listTime + " ms (GC " + listGc
+                    + " ms), primitive " + fastTotal + " in " + fastTime + " ms (GC " + fastGc + " ms)");
+            start = System.nanoTime();
+            long parallelTotal = minTotalCostParallel(n, modules, connections);
+            System.out.println("Round " + round + ": parallel Boruvka " + parallelTotal + " in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms on " + ForkJoinPool.commonPool().getParallelism()
+                    + " worker(s)");
+        }
+
+        // The 5 * 10^6 connections from a file, sorted in runs of 2^20
+        try {
+            Path file = Files.createTempFile("connections", ".bin");
+            writeConnections(file, connections);
+            long start = System.nanoTime();
+            long externalTotal = minTotalCostExternal(n, modules, file, 1 << 20);
+            System.out.println("Semi-external " + externalTotal + " in " + (System.nanoTime() - start) / 1_000_000
+                    + " ms for a " + Files.size(file) / (1 << 20) + " MiB file");
+            deleteQuietly(file);
+        } catch (IOException e) {
+            System.out.println("Connection file I/O failed: " + e.getMessage());
+        }
+
+        // 100 price vectors for the 10^6 / 5 * 10^6 network
+        clock = System.nanoTime();
+        PricingScenarios what = new PricingScenarios(n, connections);
+        long precompute = (System.nanoTime() - clock) / 1_000_000;
+        int[][] priceVectors = new int[100][];
+        for (int s = 0; s < priceVectors.length; s++) {
+            priceVectors[s] = random.ints(n, 0, 1_000).toArray();
+        }
+        clock = System.nanoTime();
+        PricingScenarios.Result[] outcomes = what.solveAll(priceVectors);
+        long solved = (System.nanoTime() - clock) / 1_000_000;
+        System.out.println("100 scenarios: forest of " + what.forestSize() + " edges built in " + precompute
+                + " ms, all scenarios in " + solved + " ms (first: " + outcomes[0].totalCost + " with "
+                + outcomes[0].devicesWithModules.length + " modules, full Kruskal "
+                + minTotalCostFast(n, priceVectors[0], connections) + ")");
+
+        // Union-find variants on 10^7 elements and 2 * 10^7 random unions (3 timed runs after a warm-up)
+        int elements = 10_000_000, unions = 20_000_000;
+        int[] a = random.ints(unions, 0, elements).toArray(), b = random.ints(unions, 0, elements).toArray();
+        for (int round = 0; round < 4; round++) {
+            long[] times = new long[4];
+            long start = System.nanoTime();
+            RecursiveDSU baseline = new RecursiveDSU(elements);
+            for (int k = 0; k < unions; k++) {
+                baseline.union(a[k], b[k]);
+            }
+            times[3] = System.nanoTime() - start;
+            start = System.nanoTime();
+            UnionFind sequential = new UnionFind(elements);
+            for (int k = 0; k < unions; k++) {
+                sequential.union(a[k], b[k]);
+            }
+            times[0] = System.nanoTime() - start;
+            start = System.nanoTime();
+            UnionFind.Concurrent concurrent = new UnionFind.Concurrent(elements, 1);
+            for (int k = 0; k < unions; k++) {
+                concurrent.union(a[k], b[k]);
+            }
+            times[1] = System.nanoTime() - start;
+            start = System.nanoTime();
+            UnionFind.Concurrent shared = new UnionFind.Concurrent(elements, 1);
+            IntStream.range(0, unions).parallel().forEach(k -> shared.union(a[k], b[k]));
+            times[2] = System.nanoTime() - start;
+            if (round > 0)
+                System.out.println("Union-find round " + round + " (ms): baseline DSU " + times[3] / 1_000_000
+                        + ", UnionFind " + times[0] / 1_000_000
+                        + ", Concurrent " + times[1] / 1_000_000 + ", Concurrent parallel " + times[2] / 1_000_000);
+        }
+
+        // A saved forest that is one chain of 10^6 elements (depth only arises from written links;
+        // union by rank alone keeps both variants O(log n) deep)
+        int depth = 1_000_000;
+        int[] chain = new int[depth];
+        for (int i = 0; i < depth; i++) {
+            chain[i] = Math.min(i + 1, depth - 1);
+        }
+        RecursiveDSU recursive = new RecursiveDSU(depth);
+        recursive.parent = chain.clone();
+        String recursiveRoot;
+        try {
+            recursiveRoot = String.valueOf(recursive.find(0));
+        } catch (StackOverflowError e) {
+            recursiveRoot = "StackOverflowError";
+        }
+        System.out.println("Chain of 10^6: baseline DSU find " + recursiveRoot + ", UnionFind find "
+                + UnionFind.fromParents(chain).find(0));
+    }
+
+    // Baseline DSU (recursive find with path compression, union by rank), the structure that
+    // MinimumNetworkCost and Question5 used before UnionFind; kept only as the benchmark reference
+    private static class RecursiveDSU {
+        int[] parent, rank;
+
+        RecursiveDSU(int n) {
+            parent = new int[n];
+            rank = new int[n];
+            for (int i = 0; i < n; i++) {
+                parent[i] = i;
+                rank[i] = 1;
+            }
+        }
+
+        int find(int x) {
+            if (parent[x] != x) {
+                parent[x] = find(parent[x]); // Path compression
+            }
+            return parent[x];
+        }
+
+        boolean union(int x, int y) {
+            int rootX = find(x);
+            int rootY = find(y);
+            if (rootX == rootY)
+                return false;
+            if (rank[rootX] > rank[rootY]) {
+                parent[rootY] = rootX;
+            } else if (rank[rootX] < rank[rootY]) {
+                parent[rootX] = rootY;
+            } else {
+                parent[rootY] = rootX;
+                rank[rootX]++;
+            }
+            return true;
+        }
+    }
+
+    // Function to generate random connections between devices 1..n
+    static int[][] randomConnections(Random random, int n, int m, int maxCost) {
+        int[][] connections = new int[m][];
+        for (int j = 0; j < m; j++) {
+            connections[j] = new int[] { 1 + random.nextInt(n), 1 + random.nextInt(n), random.nextInt(maxCost) };
+        }
+        return connections;
+    }
+
+    // Function to read the total time spent in garbage collection so far
+    static long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, collector.getCollectionTime());
+        }
+        return total;
     }
 }
+
+/**
+ * Test Results:
+ * ------------
+ * Test Case 1: 3, Test Case 2: 6, Test Case 3: 9 (the primitive edge store gives the same)
+ *
+ * Primitive Edge Store:
+ * - Matches the list-based Kruskal on 2,000 random networks
+ * - Two modules at 2 * 10^9 each: the int total overflows to -294967296, the long total is
+ *   4000000000
+ * - 10^6 devices and 5 * 10^6 connections, one core: the list-based version takes 2.5-4 s
+ *   with 0.7-1 s of GC, the primitive version 0.35-0.5 s with no GC
+ *
+ * Parallel Boruvka:
+ * - Gives the same total as both Kruskal versions on the 2,000 random networks (costs drawn
+ *   from a small range, so ties between edges are common)
+ * - Same total on the 10^6 / 5 * 10^6 network, in 5 rounds; on this single-core machine it
+ *   takes about 2 s against 0.35 s for the radix-sorted Kruskal, since each round is bound by
+ *   random reads of the component roots, so it only pays off with several cores
+ *
+ * Semi-External Kruskal:
+ * - Matches the in-memory Kruskal on 300 random networks (negative module prices included)
+ *   with runs of 1 to 8 connections merged 2 to 4 at a time, so most inputs need several
+ *   intermediate merge passes
+ * - The 5 * 10^6 connections (57 MiB file) in runs of 2^20: same total in 1.0-1.5 s
+ *
+ * Module Pricing Scenarios:
+ * - On 300 random networks with 5 price vectors each, the scenario total equals a full
+ *   Kruskal, and the reported devices' module prices plus the cheapest way to join the rest
+ *   through connections add up to that total
+ * - Test Case 2 as a scenario: 6 with a module on device 3
+ * - 10^6 devices, 5 * 10^6 connections: the forest (999,953 edges) is built once in about
+ *   0.65 s, then each scenario takes about 0.11 s against 0.35-0.4 s for a full Kruskal, with
+ *   the same total
+ *
+ * Dynamic Network:
+ * - After every one of 100 random changes (add, remove, reprice, module price) on 200 random
+ *   networks, the total equals a full Kruskal and the chosen connections and modules are n
+ *   edges adding up to it
+ * - 10^5 devices, 5 * 10^5 connections: 20,000 mixed changes average 10-20 us each, against
+ *   0.15-0.25 s for one full Kruskal
+ *
+ * Union-Find Variants (10^7 elements, 2 * 10^7 random unions, one core):
+ * - Baseline DSU (the recursive find/union that this class and Question5.DisjointSet used)
+ *   1.75-2.9 s, UnionFind (shared with Question5's Kruskal) 1.4-1.6 s, UnionFind.Concurrent
+ *   2.2-2.7 s from one thread and 3.7-3.9 s through a parallel stream on the single worker here
+ *   (atomic accesses and stream overhead with nothing to parallelise)
+ * - A saved forest that is a single chain of 10^6 elements: the baseline recursive find throws
+ *   StackOverflowError, UnionFind.fromParents(chain).find(0) returns 999999. Random unions never
+ *   build such a chain, because both variants link by rank
+ */
@@ -70,17 +70,23 @@ block.
  * - Draw game board, current block, and next block preview
  * - Handle game over conditions
  * 
- * Key Data Structures:
- * - Queue<Block>: Manages upcoming blocks
- * - Stack<Block>: Tracks placed blocks
- * - 2D arrays: Represent game board and block colors
+ * Key Data Structures (in TetrisEngine, which holds all game rules without Swing):
+ * - Queue: a ring buffer of upcoming piece types, filled from a seedable generator
+ *   (uniformly random pieces here, as before; a 7-bag is also available)
+ * - Board: a bitboard with one long per row (bit j = column j) plus the piece type of each
+ *   filled cell; pieces carry precomputed row masks for all four rotations, so a collision
+ *   test is one AND per piece row and clearing rows is one bottom-up compaction pass
+ *
+ * This class is only the view: the timer calls engine.step(), the buttons call move, rotate
+ * and drop, and painting reads the board, the falling piece and the preview from the engine,
+ * mapping piece types to colors
  */
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.util.*;
 import javax.swing.Timer; // Import Swing's Timer class for game loop timing
+import java.util.concurrent.ExecutionException;
 
 public class Question3b extends JFrame {
     // Constants defining game board dimensions and block size
@@ -93,16 +99,18 @@ public class Question3b extends JFrame {
     private JPanel previewPanel; // Panel showing next block
     private JPanel infoPanel; // Information panel (unused in current implementation)
 
-    // Game state management components
-    private GameBoard gameBoard; // Represents the game board logic
-    private Block currentBlock; // Currently active block
-    private Queue<Block> blockQueue; // Queue of upcoming blocks
-    private Stack<Block> blockStack; // Stack of placed blocks
+    // Block colors by piece type (TetrisEngine.I, O, T, S, Z, J, L)
+    private static final Color[] PIECE_COLORS = { Color.CYAN, Color.YELLOW, Color.MAGENTA, Color.GREEN,
+            Color.RED, Color.BLUE, Color.ORANGE };
+
+    // Game state: the headless engine holds the board, the falling block and the block queue
+    private TetrisEngine engine;
 
     // Game mechanics components
     private Timer timer; // Controls game loop and block movement
-    private int score = 0; // Player's current score
-    private int level = 1; // Current game level
+    private final TetrisEngine.AutoPlayer autoPlayer = new TetrisEngine.AutoPlayer(8); // Plays when auto is on
+    private boolean autoPlay = false;
+    private boolean searching = false; // A bot search is running off the event thread
 
     // UI labels for displaying game information
     private JLabel scoreLabel; // Displays current score
@@ -133,9 +141,10 @@ public class Question3b extends JFrame {
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
                 // Draw game board and current block
-                gameBoard.draw(g);
-                if (currentBlock != null) {
-                    currentBlock.draw(g);
+                drawBoard(g);
+                if (!engine.isGameOver()) {
+                    drawPiece(g, engine.currentType(), engine.currentRotation(),
+                            engine.currentX() * BLOCK_SIZE, engine.currentY() * BLOCK_SIZE);
                 }
             }
         };
@@ -149,9 +158,7 @@ public class Question3b extends JFrame {
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
                 // Draw next block in queue
-                if (!blockQueue.isEmpty()) {
-                    blockQueue.peek().drawPreview(g);
-                }
+                drawPiece(g, engine.preview(0), 0, 20, 20);
             }
         };
         // Set preview panel size and background
@@ -172,6 +179,7 @@ public class Question3b extends JFrame {
         JButton rightButton = new JButton("Right");
         JButton rotateButton = new JButton("Rotate");
         JButton dropButton = new JButton("Drop");
+        JButton autoButton = new JButton("Auto");
 
         // Create score and level labels
         scoreLabel = new JLabel("Score: 0");
@@ -186,12 +194,14 @@ public class Question3b extends JFrame {
         rightButton.setBackground(buttonColor);
         rotateButton.setBackground(buttonColor);
         dropButton.setBackground(buttonColor);
+        autoButton.setBackground(buttonColor);
 
         // Set button text colors
         leftButton.setForeground(textColor);
         rightButton.setForeground(textColor);
         rotateButton.setForeground(textColor);
         dropButton.setForeground(textColor);
+        autoButton.setForeground(textColor);
 
         // Set label colors
         scoreLabel.setForeground(textColor);
@@ -202,6 +212,7 @@ public class Question3b extends JFrame {
         controlPanel.add(rightButton);
         controlPanel.add(rotateButton);
         controlPanel.add(dropButton);
+        controlPanel.add(autoButton);
         controlPanel.add(scoreLabel);
         controlPanel.add(levelLabel);
 
@@ -214,10 +225,11 @@ public class Question3b extends JFrame {
         setupKeyBindings();
 
         // Define button actions
-        leftButton.addActionListener(e -> moveBlock(-1, 0));
-        rightButton.addActionListener(e -> moveBlock(1, 0));
+        leftButton.addActionListener(e -> moveBlock(-1));
+        rightButton.addActionListener(e -> moveBlock(1));
         rotateButton.addActionListener(e -> rotateBlock());
         dropButton.addActionListener(e -> dropBlock());
+        autoButton.addActionListener(e -> autoPlay = !autoPlay);
 
         // Adjust frame size and center on screen
         pack();
@@ -243,13 +255,13 @@ public class Question3b extends JFrame {
         actionMap.put("moveLeft", new AbstractAction() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                moveBlock(-1, 0);
+                moveBlock(-1);
             }
         });
         actionMap.put("moveRight", new AbstractAction() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                moveBlock(1, 0);
+                moveBlock(1);
             }
         });
         actionMap.put("rotate", new AbstractAction() {
@@ -268,20 +280,12 @@ public class Question3b extends JFrame {
 
     /**
      * Initialize game state and start the game
-     * Sets up initial block queue and starts game timer
+     * Creates the engine (which fills the block queue) and starts the game timer
      */
     private void startGame() {
-        // Create new game board
-        gameBoard = new GameBoard();
-
-        // Initialize block collections
-        blockQueue = new LinkedList<>();
-        blockStack = new Stack<>();
-
-        // Add initial blocks to queue
-        blockQueue.add(generateRandomBlock());
-        currentBlock = blockQueue.poll();
-        blockQueue.add(generateRandomBlock());
+        // Standard 10x20 board, one preview block, a new random game each run
+        engine = new TetrisEngine(BOARD_WIDTH, BOARD_HEIGHT, 1, TetrisEngine.Randomizer.UNIFORM,
+                System.nanoTime());
 
         // Create game timer with initial delay
         timer = new Timer(600, e -> gameLoop());
@@ -290,333 +294,155 @@ public class Question3b extends JFrame {
 
     /**
      * Main game loop
-     * Handles block movement, placement, and game progression
+     * Advances the engine by one tick and updates the display
      */
     private void gameLoop() {
-        // Check for game over condition
-        if (gameBoard.isGameOver()) {
-            timer.stop();
-            JOptionPane.showMessageDialog(this, "Game Over! Score: " + score + ", Level: " + level);
+        // In auto mode the bot places one whole block per tick, searching in the background
+        if (autoPlay) {
+            startSearch();
             return;
         }
 
-        // Try to move block down
-        if (!moveBlock(0, 1)) {
-            // Block cannot move down, place it on the board
-            blockStack.push(currentBlock);
-            gameBoard.placeBlock(currentBlock);
+        // Move the block down, or place it, clear rows and take the next block from the queue
+        engine.step();
+        afterMove();
+    }
 
-            // Check and clear completed rows
-            checkCompletedRows();
+    /**
+     * Search the best placement on a snapshot off the event thread, then place the block back
+     * on the event thread (unless the block was placed meanwhile or auto mode was switched off)
+     */
+    private void startSearch() {
+        if (searching)
+            return; // The previous search is still running; skip this tick
+        searching = true;
+        TetrisEngine snapshot = engine.snapshot();
+        long placed = engine.placements();
+        new SwingWorker<int[], Void>() {
+            @Override
+            protected int[] doInBackground() {
+                return autoPlayer.chooseMove(snapshot);
+            }
 
-            // Get next block from queue
-            currentBlock = blockQueue.poll();
-            blockQueue.add(generateRandomBlock());
+            @Override
+            protected void done() {
+                searching = false;
+                if (!autoPlay || !timer.isRunning() || engine.placements() != placed)
+                    return;
+                int[] move;
+                try {
+                    move = get();
+                } catch (InterruptedException | ExecutionException e) {
+                    move = null;
+                }
+                // Without a legal placement the block just falls, as in manual play
+                if (move == null || engine.place(move[0], move[1]) < 0)
+                    engine.step();
+                afterMove();
+            }
+        }.execute();
+    }
 
-            // Adjust game speed based on level
-            int delay = Math.max(100, 600 - (level * 50));
-            timer.setDelay(delay);
+    /**
+     * Update the display after the block moved or was placed, and end the game if it is over
+     */
+    private void afterMove() {
+        updateLabels();
+
+        // Check for game over condition
+        if (engine.isGameOver()) {
+            timer.stop();
+            repaintAll();
+            JOptionPane.showMessageDialog(this, "Game Over! Score: " + engine.score() + ", Level: " + engine.level());
+            return;
         }
 
-        // Repaint game and preview panels
-        gamePanel.repaint();
-        previewPanel.repaint();
+        // Adjust game speed based on level
+        int delay = Math.max(100, 600 - (engine.level() * 50));
+        timer.setDelay(delay);
+
+        repaintAll();
     }
 
     /**
-     * Move current block in specified direction
+     * Move current block horizontally
      * 
      * @param dx Horizontal movement (-1 for left, 1 for right)
-     * @param dy Vertical movement (usually 1 for downward)
-     * @return boolean indicating if move was successful
      */
-    private boolean moveBlock(int dx, int dy) {
-        // Calculate new block position
-        int newX = currentBlock.x + dx;
-        int newY = currentBlock.y + dy;
-
-        // Check if new position is valid
-        if (gameBoard.isValidPosition(currentBlock.shape, newX, newY)) {
-            // Update block position
-            currentBlock.x = newX;
-            currentBlock.y = newY;
-            return true;
-        }
-        return false;
+    private void moveBlock(int dx) {
+        if (engine.move(dx))
+            gamePanel.repaint();
     }
 
     /**
      * Instantly drop the current block to the bottom
      */
     private void dropBlock() {
-        // Move block down until it can't move further
-        while (moveBlock(0, 1)) {
-            // Continuously move block down
-        }
+        engine.drop();
+        gamePanel.repaint();
     }
 
     /**
      * Rotate the current block if the new position is valid
      */
     private void rotateBlock() {
-        // Get rotated block shape
-        int[][] rotated = currentBlock.rotate();
-
-        // Check if rotated position is valid
-        if (gameBoard.isValidPosition(rotated, currentBlock.x, currentBlock.y)) {
-            // Update block shape
-            currentBlock.shape = rotated;
-        }
+        if (engine.rotate())
+            gamePanel.repaint();
     }
 
     /**
-     * Check for and clear completed rows, update score and level
+     * Update score and level labels
      */
-    private void checkCompletedRows() {
-        // Clear completed rows and get number of rows cleared
-        int rowsCleared = gameBoard.clearCompletedRows();
-
-        // Update score
-        score += rowsCleared * 100;
-
-        // Update level (increases every 100 points)
-        level = (score / 100) + 1;
-
-        // Update score and level labels
-        scoreLabel.setText("Score: " + score);
-        levelLabel.setText("Level: " + level);
+    private void updateLabels() {
+        scoreLabel.setText("Score: " + engine.score());
+        levelLabel.setText("Level: " + engine.level());
     }
 
-    /**
-     * Generate a random Tetris block
-     * 
-     * @return Block A randomly selected Tetris block
-     */
-    private Block generateRandomBlock() {
-        // Define all possible block types with their shapes and colors
-        Block[] blockTypes = {
-                new Block(new int[][] { { 1, 1, 1, 1 } }, Color.CYAN), // I block
-                new Block(new int[][] { { 1, 1 }, { 1, 1 } }, Color.YELLOW), // O block
-                new Block(new int[][] { { 0, 1, 0 }, { 1, 1, 1 } }, Color.MAGENTA), // T block
-                new Block(new int[][] { { 1, 0, 0 }, { 1, 1, 1 } }, Color.GREEN), // S block
-                new Block(new int[][] { { 0, 0, 1 }, { 1, 1, 1 } }, Color.RED), // Z block
-                new Block(new int[][] { { 1, 1, 1 }, { 1, 0, 0 } }, Color.BLUE), // J block
-                new Block(new int[][] { { 1, 1, 1 }, { 0, 0, 1 } }, Color.ORANGE) // L block
-        };
-
-        // Return a randomly selected block
-        return new Block(blockTypes[new Random().nextInt(blockTypes.length)]);
+    // Repaint game and preview panels
+    private void repaintAll() {
+        gamePanel.repaint();
+        previewPanel.repaint();
     }
 
     /**
-     * Inner class representing a Tetris block
+     * Draw the game board
+     * 
+     * @param g Graphics context to draw on
      */
-    class Block {
-        int[][] shape; // Block's shape configuration
-        int x, y; // Block's current position
-        Color color; // Block's color
-
-        /**
-         * Constructor for creating a new block
-         * 
-         * @param shape Block's shape matrix
-         * @param color Block's color
-         */
-        Block(int[][] shape, Color color) {
-            this.shape = shape.clone();
-            this.color = color;
-            // Start block at the center top of the board
-            this.x = BOARD_WIDTH / 2 - shape[0].length / 2;
-            this.y = 0;
-        }
-
-        /**
-         * Copy constructor to create a duplicate of a block
-         * 
-         * @param block Block to clone
-         */
-        Block(Block block) {
-            this.shape = block.shape.clone();
-            this.color = block.color;
-            this.x = block.x;
-            this.y = block.y;
-        }
-
-        /**
-         * Draw the block on the game panel
-         * 
-         * @param g Graphics context to draw on
-         */
-        void draw(Graphics g) {
-            g.setColor(color);
-            for (int i = 0; i < shape.length; i++) {
-                for (int j = 0; j < shape[i].length; j++) {
-                    if (shape[i][j] == 1) {
-                        g.fillRect((x + j) * BLOCK_SIZE, (y + i) * BLOCK_SIZE, BLOCK_SIZE, BLOCK_SIZE);
-                    }
+    private void drawBoard(Graphics g) {
+        // Draw each cell on the board
+        for (int i = 0; i < engine.height(); i++) {
+            for (int j = 0; j < engine.width(); j++) {
+                // Fill colored blocks
+                int type = engine.cell(i, j);
+                if (type != TetrisEngine.EMPTY) {
+                    g.setColor(PIECE_COLORS[type]);
+                    g.fillRect(j * BLOCK_SIZE, i * BLOCK_SIZE, BLOCK_SIZE, BLOCK_SIZE);
                 }
-            }
-        }
 
-        /**
-         * Draw block preview in the preview panel
-         * 
-         * @param g Graphics context to draw on
-         */
-        void drawPreview(Graphics g) {
-            g.setColor(color);
-            for (int i = 0; i < shape.length; i++) {
-                for (int j = 0; j < shape[i].length; j++) {
-                    if (shape[i][j] == 1) {
-                        g.fillRect(j * BLOCK_SIZE + 20, i * BLOCK_SIZE + 20, BLOCK_SIZE, BLOCK_SIZE);
-                    }
-                }
+                // Draw grid lines
+                g.setColor(Color.DARK_GRAY);
+                g.drawRect(j * BLOCK_SIZE, i * BLOCK_SIZE, BLOCK_SIZE, BLOCK_SIZE);
             }
         }
-
-        /**
-         * Rotate the block 90 degrees clockwise
-         * 
-         * @return Rotated block shape
-         */
-        int[][] rotate() {
-            int[][] rotated = new int[shape[0].length][shape.length];
-            for (int i = 0; i < shape.length; i++) {
-                for (int j = 0; j < shape[0].length; j++) {
-                    rotated[j][shape.length - 1 - i] = shape[i][j];
-                }
-            }
-            return rotated;
-        }
     }
 
     /**
-     * Inner class representing the Tetris game board
-     * Manages game board state, block placement, and row clearing
+     * Draw a block with its top-left corner at a pixel position
+     * 
+     * @param g        Graphics context to draw on
+     * @param type     Piece type
+     * @param rotation Rotation (0 = spawn orientation)
+     * @param left     Pixel x of the block's first column
+     * @param top      Pixel y of the block's first row
      */
-    class GameBoard {
-        // 2D array to track block positions on the board
-        private int[][] board = new int[BOARD_HEIGHT][BOARD_WIDTH];
-
-        // 2D array to track block colors on the board
-        private Color[][] boardColors = new Color[BOARD_HEIGHT][BOARD_WIDTH];
-
-        /**
-         * Check if a block can be placed at a given position
-         * 
-         * @param shape Block shape to validate
-         * @param x     X-coordinate of potential placement
-         * @param y     Y-coordinate of potential placement
-         * @return boolean indicating if placement is valid
-         */
-        boolean isValidPosition(int[][] shape, int x, int y) {
-            // Check each block in the shape
-            for (int i = 0; i < shape.length; i++) {
-                for (int j = 0; j < shape[i].length; j++) {
-                    if (shape[i][j] == 1) {
-                        int newX = x + j;
-                        int newY = y + i;
-
-                        // Check board boundaries and existing blocks
-                        if (newX < 0 || newX >= BOARD_WIDTH || newY >= BOARD_HEIGHT ||
-                                (newY >= 0 && board[newY][newX] != 0)) {
-                            return false;
-                        }
-                    }
-                }
-            }
-            return true;
-        }
-
-        /**
-         * Place a block on the game board
-         * 
-         * @param block Block to place
-         */
-        void placeBlock(Block block) {
-            // Mark each block segment on the board
-            for (int i = 0; i < block.shape.length; i++) {
-                for (int j = 0; j < block.shape[i].length; j++) {
-                    if (block.shape[i][j] == 1) {
-                        board[block.y + i][block.x + j] = 1;
-                        boardColors[block.y + i][block.x + j] = block.color;
-                    }
-                }
-            }
-        }
-
-        /**
-         * Clear completed rows and shift blocks down
-         * 
-         * @return Number of rows cleared
-         */
-        int clearCompletedRows() {
-            int rowsCleared = 0;
-
-            // Check each row for completion
-            for (int i = 0; i < BOARD_HEIGHT; i++) {
-                boolean full = true;
-
-                // Check if row is completely filled
-                for (int j = 0; j < BOARD_WIDTH; j++) {
-                    if (board[i][j] == 0) {
-                        full = false;
-                        break;
-                    }
-                }
-
-                // If row is full, clear it and shift rows down
-                if (full) {
-                    rowsCleared++;
-
-                    // Shift rows down
-                    for (int k = i; k > 0; k--) {
-                        board[k] = board[k - 1].clone();
-                        boardColors[k] = boardColors[k - 1].clone();
-                    }
-
-                    // Clear top row
-                    board[0] = new int[BOARD_WIDTH];
-                    boardColors[0] = new Color[BOARD_WIDTH];
-                }
-            }
-            return rowsCleared;
-        }
-
-        /**
-         * Check if the game is over
-         * 
-         * @return boolean indicating game over state
-         */
-        boolean isGameOver() {
-            // Game is over if any block reaches the top row
-            for (int j = 0; j < BOARD_WIDTH; j++) {
-                if (board[0][j] != 0) {
-                    return true;
-                }
-            }
-            return false;
-        }
-
-        /**
-         * Draw the game board
-         * 
-         * @param g Graphics context to draw on
-         */
-        void draw(Graphics g) {
-            // Draw each cell on the board
-            for (int i = 0; i < BOARD_HEIGHT; i++) {
-                for (int j = 0; j < BOARD_WIDTH; j++) {
-                    // Fill colored blocks
-                    if (board[i][j] != 0) {
-                        g.setColor(boardColors[i][j]);
-                        g.fillRect(j * BLOCK_SIZE, i * BLOCK_SIZE, BLOCK_SIZE, BLOCK_SIZE);
-                    }
-
-                    // Draw grid lines
-                    g.setColor(Color.DARK_GRAY);
-                    g.drawRect(j * BLOCK_SIZE, i * BLOCK_SIZE, BLOCK_SIZE, BLOCK_SIZE);
-                }
+    private void drawPiece(Graphics g, int type, int rotation, int left, int top) {
+        g.setColor(PIECE_COLORS[type]);
+        long[] masks = TetrisEngine.pieceMasks(type, rotation);
+        for (int i = 0; i < masks.length; i++) {
+            for (long rest = masks[i]; rest != 0; rest &= rest - 1) {
+                int j = Long.numberOfTrailingZeros(rest);
+                g.fillRect(left + j * BLOCK_SIZE, top + i * BLOCK_SIZE, BLOCK_SIZE, BLOCK_SIZE);
             }
         }
     }
@@ -646,6 +472,23 @@ public class Question3b extends JFrame {
  * - Blocks maintain their colors when placed
  * - Preview panel shows next block
  * 
+ * 4. Bitboard Board
+ * - The board now lives in TetrisEngine; its Test Case 3 (run TetrisEngine.main) checks
+ *   collisions, placements, cleared rows and the filled cells after every placement against a
+ *   plain boolean grid that clears rows like the original board
+ * 
+ * 5. Headless Engine (see TetrisEngine.java)
+ * - Same seed and inputs replay the same game; every 7-bag holds all seven pieces
+ * - Runs with no window open; placement throughput is measured by TetrisEngine.main and
+ *   reported in TetrisEngine's Test Results
+ * - The view draws the same board, falling block and preview as before
+ * 
+ * 6. Auto Button
+ * - Toggles the beam-search auto-player, which places one block per timer tick using the
+ *   preview queue; it cleared 1,998 rows in 5,000 placements headless
+ * - The search runs in a SwingWorker on a snapshot of the game, so the event thread never
+ *   waits for it; the move is applied on the event thread only if the block is still the same
+ * 
  * Performance Tests:
  * - Smooth block movement
  * - Responsive key controls
@@ -33,7 +33,7 @@ and the latency of data transmission.
 *      bandwidth implies a faster route).
 * 
 * 4. Optimize Network:
-*    - Kruskal's algorithm (using a DisjointSet structure) is implemented to generate the 
+*    - Kruskal's algorithm (using the shared UnionFind structure) is implemented to generate the 
 *      Minimum Spanning Tree (MST) of the network. This provides an optimized network 
 *      topology that minimizes the overall connection cost.
 * 
@@ -279,7 +279,7 @@ public class Question5 {
     // Kruskal's algorithm to find the Minimum Spanning Tree (MST) of the network
     private List<Edge> kruskal(List<Node> nodes, List<Edge> edges) {
         List<Edge> mst = new ArrayList<>();
-        DisjointSet ds = new DisjointSet(nodes.size());
+        UnionFind ds = new UnionFind(nodes.size()); // Shared union-find (UnionFind.java)
 
         // Sort the edges by cost
         edges.sort(Comparator.comparingDouble(e -> e.cost));
@@ -289,15 +289,14 @@ public class Question5 {
             int node1Index = nodes.indexOf(edge.node1);
             int node2Index = nodes.indexOf(edge.node2);
 
-            if (ds.find(node1Index) != ds.find(node2Index)) {
-                ds.union(node1Index, node2Index);
+            if (ds.union(node1Index, node2Index)) { // false if both are already connected
                 mst.add(edge);
             }
         }
         return mst;
     }
 
-    // Helper class for Node, Edge, DisjointSet, and NetworkGraphPanel
+    // Helper class for Node, Edge, and NetworkGraphPanel
     class Node {
         String name;
         int x, y;
@@ -323,46 +322,6 @@ public class Question5 {
         }
     }
 
-    // Helper class implementing the Disjoint Set (Union-Find) data structure for
-    // Kruskal's algorithm
-    class DisjointSet {
-        private final int[] parent, rank; // Arrays to hold parent links and ranks for union by rank
-
-        // Constructor: Initializes the disjoint set with 'n' elements
-        public DisjointSet(int n) {
-            parent = new int[n]; // Initialize parent array
-            rank = new int[n]; // Initialize rank array
-            for (int i = 0; i < n; i++) { // Loop through each element
-                parent[i] = i; // Initially, each element is its own parent
-                rank[i] = 0; // Rank is initialized to 0 for all elements
-            }
-        }
-
-        // Method to find the representative (root) of a set that element 'i' belongs to
-        public int find(int i) {
-            if (parent[i] != i) { // If 'i' is not its own parent, then it's not the root
-                parent[i] = find(parent[i]); // Recursively find the root and apply path compression
-            }
-            return parent[i]; // Return the root of the set
-        }
-
-        // Method to union the sets containing elements 'i' and 'j'
-        public void union(int i, int j) {
-            int rootI = find(i); // Find the root of element 'i'
-            int rootJ = find(j); // Find the root of element 'j'
-            if (rootI != rootJ) { // If the roots are different, union the sets
-                if (rank[rootI] > rank[rootJ]) { // Attach the tree with the smaller rank under the one with larger rank
-                    parent[rootJ] = rootI;
-                } else if (rank[rootI] < rank[rootJ]) {
-                    parent[rootI] = rootJ;
-                } else {
-                    parent[rootJ] = rootI;
-                    rank[rootI]++; // Increase the rank if both have the same rank
-                }
-            }
-        }
-    }
-
     // Custom JPanel class for visualizing the network graph (nodes and edges)
     class NetworkGraphPanel extends JPanel {
         private List<Node> displayedNodes = new ArrayList<>(); // List to hold nodes to be displayed
@@ -0,0 +1,863 @@
+/*
+Tetris Engine (headless core of Question 3b):
+The game rules of Question 3b without any Swing or AWT dependency, so games can be simulated faster than
+real time and replayed exactly from a seed. Question3b is a view that draws this engine's state and
+forwards button presses and timer ticks to it.
+*/
+
+// Solution:
+
+/*
+ * Algorithm Explanation:
+ * ---------------------
+ * Board:
+ * - A bitboard: rows[i] has bit j set when the cell in row i, column j is filled (widths up to
+ *   64); a parallel byte per cell remembers which piece filled it, for drawing
+ * - Every piece has its row masks precomputed for all 4 rotations (rotating the shape matrix
+ *   clockwise, as the original Block.rotate does), so a collision test is one AND per piece row
+ * - Full rows compare against a constant and are removed in one bottom-up compaction pass
+ *
+ * Pieces:
+ * - A seedable generator (SplittableRandom) picks pieces either uniformly, like the original
+ *   generateRandomBlock, or from a 7-bag (each shuffled bag holds every piece once)
+ * - Upcoming pieces wait in a fixed-size ring buffer (the block queue) for the preview
+ *
+ * Control:
+ * - move, rotate and drop act on the falling piece; step is one gravity tick that moves it down
+ *   or locks it, clears rows and spawns the next piece
+ * - place(rotation, column) drops the current piece straight down in one call, which is what
+ *   simulations and bots use
+ * - Scoring follows Question 3b: 100 points per cleared row, level = score / 100 + 1; the game
+ *   is over when a locked piece reaches the top row or a new piece cannot spawn
+ *
+ * Auto-player (beam search):
+ * - The current piece and the preview queue are searched in order; at each depth every board
+ *   in the beam is expanded by every distinct rotation x column of that piece
+ * - A child is scored by -0.51 * aggregate height + 0.76 * lines - 0.36 * holes - 0.18 * bumpiness,
+ *   with heights and holes from one top-down pass of ORs over the bitboard rows
+ * - Children are scored in parallel on a ForkJoinPool; each worker copies the parent into its own
+ *   scratch board and writes only its child's slot of the score array
+ * - The best beamWidth children (ties to the lower index, so any thread count gives the same
+ *   move) are replayed into the next beam; the move is the first placement of the best leaf
+ * - One player may serve several searches at once (its statistics are LongAdders); a game in
+ *   play is searched through snapshot(), so the search never reads a board that is changing
+ *
+ * Time Complexity: O(h) per placement for a piece of h rows dropped through H rows
+ *                  (O(H * h) ANDs worst case)
+ *                  O(d * B * 4W * H) per bot move for d pieces and beam width B
+ * Space Complexity: O(W * H) for the board, O(B * 4W + B * H) per search depth
+ */
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+public class TetrisEngine {
+    // Piece types, in the order of the original generateRandomBlock
+    public static final int I = 0, O = 1, T = 2, S = 3, Z = 4, J = 5, L = 6, PIECE_COUNT = 7;
+    public static final int EMPTY = -1;
+
+    public enum Randomizer {
+        UNIFORM, // Every piece independently at random
+        BAG // Shuffled bags of all seven pieces
+    }
+
+    // Spawn shapes of the original Question 3b blocks
+    private static final int[][][] SHAPES = {
+            { { 1, 1, 1, 1 } }, // I block
+            { { 1, 1 }, { 1, 1 } }, // O block
+            { { 0, 1, 0 }, { 1, 1, 1 } }, // T block
+            { { 1, 0, 0 }, { 1, 1, 1 } }, // S block
+            { { 0, 0, 1 }, { 1, 1, 1 } }, // Z block
+            { { 1, 1, 1 }, { 1, 0, 0 } }, // J block
+            { { 1, 1, 1 }, { 0, 0, 1 } } // L block
+    };
+
+    // MASKS[type][rotation][row] and WIDTHS[type][rotation] for rotations 0..3 (clockwise)
+    private static final long[][][] MASKS = new long[PIECE_COUNT][4][];
+    private static final int[][] WIDTHS = new int[PIECE_COUNT][4];
+
+    static {
+        for (int type = 0; type < PIECE_COUNT; type++) {
+            int[][] shape = SHAPES[type];
+            for (int rotation = 0; rotation < 4; rotation++) {
+                long[] masks = new long[shape.length];
+                for (int i = 0; i < shape.length; i++) {
+                    for (int j = 0; j < shape[i].length; j++) {
+                        if (shape[i][j] == 1)
+                            masks[i] |= 1L << j;
+                    }
+                }
+                MASKS[type][rotation] = masks;
+                WIDTHS[type][rotation] = shape[0].length;
+
+                // Rotate 90 degrees clockwise for the next rotation
+                int[][] rotated = new int[shape[0].length][shape.length];
+                for (int i = 0; i < shape.length; i++) {
+                    for (int j = 0; j < shape[0].length; j++) {
+                        rotated[j][shape.length - 1 - i] = shape[i][j];
+                    }
+                }
+                shape = rotated;
+            }
+        }
+    }
+
+    private final int width, height;
+    private final long fullRow;
+    private final long[] rows;
+    private final byte[][] cells; // Piece type per cell, for drawing
+
+    private final Randomizer randomizer;
+    private SplittableRandom random;
+    private final int[] bag = new int[PIECE_COUNT];
+    private int bagLeft;
+    private final int[] queue; // Ring buffer of upcoming pieces
+    private int queueHead;
+
+    private int type, rotation, x, y; // Falling piece
+    private long score, linesCleared, placements;
+    private boolean gameOver;
+
+    // Standard 10x20 game with one preview piece and uniformly random pieces
+    public TetrisEngine(long seed) {
+        this(10, 20, 1, Randomizer.UNIFORM, seed);
+    }
+
+    public TetrisEngine(int width, int height, int previewSize, Randomizer randomizer, long seed) {
+        if (width < 4 || width > 64 || height < 4)
+            throw new IllegalArgumentException("Unsupported board size: " + width + "x" + height);
+        if (previewSize < 0)
+            throw new IllegalArgumentException("Negative preview size: " + previewSize);
+        this.width = width;
+        this.height = height;
+        fullRow = width == 64 ? -1L : (1L << width) - 1;
+        rows = new long[height];
+        cells = new byte[height][width];
+        for (byte[] row : cells) {
+            Arrays.fill(row, (byte) EMPTY);
+        }
+        this.randomizer = randomizer;
+        queue = new int[previewSize + 1]; // Slot queueHead is the next piece to spawn
+        reset(seed);
+    }
+
+    // Copy constructor behind snapshot
+    private TetrisEngine(TetrisEngine game) {
+        width = game.width;
+        height = game.height;
+        fullRow = game.fullRow;
+        rows = game.rows.clone();
+        cells = new byte[height][];
+        for (int i = 0; i < height; i++) {
+            cells[i] = game.cells[i].clone();
+        }
+        randomizer = game.randomizer;
+        random = new SplittableRandom(game.placements); // Leaves the original generator untouched
+        System.arraycopy(game.bag, 0, bag, 0, PIECE_COUNT);
+        bagLeft = game.bagLeft;
+        queue = game.queue.clone();
+        queueHead = game.queueHead;
+        type = game.type;
+        rotation = game.rotation;
+        x = game.x;
+        y = game.y;
+        score = game.score;
+        linesCleared = game.linesCleared;
+        placements = game.placements;
+        gameOver = game.gameOver;
+    }
+
+    // Function to copy the board, falling piece and queue, e.g. to search on another thread while
+    // this game goes on; pieces drawn after the copied queue are not the ones this game will get
+    public TetrisEngine snapshot() {
+        return new TetrisEngine(this);
+    }
+
+    // Function to start a new game on the same board, as a new engine with this seed would
+    public void reset(long seed) {
+        for (int i = 0; i < height; i++) {
+            rows[i] = 0;
+            Arrays.fill(cells[i], (byte) EMPTY);
+        }
+        random = new SplittableRandom(seed);
+        bagLeft = 0;
+        queueHead = 0;
+        for (int k = 0; k < queue.length; k++) {
+            queue[k] = nextPiece();
+        }
+        score = linesCleared = placements = 0;
+        gameOver = false;
+        spawn();
+    }
+
+    // Function to draw the next piece from the generator
+    private int nextPiece() {
+        if (randomizer == Randomizer.UNIFORM)
+            return random.nextInt(PIECE_COUNT);
+        if (bagLeft == 0) {
+            // Refill and shuffle (Fisher-Yates)
+            for (int k = 0; k < PIECE_COUNT; k++) {
+                bag[k] = k;
+            }
+            for (int k = PIECE_COUNT - 1; k > 0; k--) {
+                int swap = random.nextInt(k + 1), piece = bag[k];
+                bag[k] = bag[swap];
+                bag[swap] = piece;
+            }
+            bagLeft = PIECE_COUNT;
+        }
+        return bag[--bagLeft];
+    }
+
+    // Function to take the next piece from the queue and put it at the top centre
+    private void spawn() {
+        type = queue[queueHead];
+        queue[queueHead] = nextPiece();
+        queueHead = (queueHead + 1) % queue.length;
+        rotation = 0;
+        x = width / 2 - WIDTHS[type][0] / 2;
+        y = 0;
+        if (!fits(type, rotation, x, y))
+            gameOver = true;
+    }
+
+    // Function to check whether a piece fits; rows above the board are allowed
+    public boolean fits(int type, int rotation, int x, int y) {
+        if (x < 0 || x + WIDTHS[type][rotation] > width)
+            return false;
+        return fits(rows, MASKS[type][rotation], x, y);
+    }
+
+    // Function to check piece rows against a bitboard, for columns already known to be on the board
+    private static boolean fits(long[] rows, long[] masks, int x, int y) {
+        for (int i = 0; i < masks.length; i++) {
+            int row = y + i;
+            if (row >= rows.length)
+                return false;
+            if (row >= 0 && (rows[row] & masks[i] << x) != 0)
+                return false;
+        }
+        return true;
+    }
+
+    // Function to move the falling piece sideways; returns false if blocked or over
+    public boolean move(int dx) {
+        if (gameOver || !fits(type, rotation, x + dx, y))
+            return false;
+        x += dx;
+        return true;
+    }
+
+    // Function to rotate the falling piece clockwise in place; returns false if blocked or over
+    public boolean rotate() {
+        int next = (rotation + 1) & 3;
+        if (gameOver || !fits(type, next, x, y))
+            return false;
+        rotation = next;
+        return true;
+    }
+
+    // Function to drop the falling piece to the bottom (it locks on the next step)
+    public void drop() {
+        while (!gameOver && fits(type, rotation, x, y + 1)) {
+            y++;
+        }
+    }
+
+    // One gravity tick: move down, or lock the piece and spawn the next one.
+    // Returns the number of rows cleared by a lock (0 otherwise), or -1 once the game is over
+    public int step() {
+        if (gameOver)
+            return -1;
+        if (fits(type, rotation, x, y + 1)) {
+            y++;
+            return 0;
+        }
+        return lock();
+    }
+
+    // Function to drop the current piece at a rotation and column straight down and lock it.
+    // Returns the number of rows cleared, or -1 if the piece cannot be placed there or the game is over
+    public int place(int rotation, int column) {
+        if (gameOver || !fits(type, rotation, column, 0))
+            return -1;
+        this.rotation = rotation;
+        x = column;
+        y = 0;
+        drop();
+        return lock();
+    }
+
+    // Function to write the falling piece into the board, clear rows and spawn the next piece
+    private int lock() {
+        long[] masks = MASKS[type][rotation];
+        for (int i = 0; i < masks.length; i++) {
+            int row = y + i;
+            if (row < 0)
+                continue;
+            long placed = masks[i] << x;
+            rows[row] |= placed;
+            for (long rest = placed; rest != 0; rest &= rest - 1) {
+                cells[row][Long.numberOfTrailingZeros(rest)] = (byte) type;
+            }
+        }
+        placements++;
+        int cleared = clearRows();
+        linesCleared += cleared;
+        score += cleared * 100L;
+        if (rows[0] != 0) {
+            gameOver = true;
+            return cleared;
+        }
+        spawn();
+        return cleared;
+    }
+
+    // Function to remove full rows in one bottom-up pass; returns how many were removed
+    private int clearRows() {
+        int target = height - 1;
+        for (int i = height - 1; i >= 0; i--) {
+            if (rows[i] == fullRow)
+                continue;
+            if (target != i) {
+                rows[target] = rows[i];
+                byte[] moved = cells[target];
+                cells[target] = cells[i];
+                cells[i] = moved;
+            }
+            target--;
+        }
+        for (int i = 0; i <= target; i++) {
+            rows[i] = 0;
+            Arrays.fill(cells[i], (byte) EMPTY);
+        }
+        return target + 1;
+    }
+
+    // Accessors for views, bots and tests
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    public long rowMask(int row) {
+        return rows[row];
+    }
+
+    // Function to get the piece type that filled a cell, or EMPTY
+    public int cell(int row, int column) {
+        return cells[row][column];
+    }
+
+    public int currentType() {
+        return type;
+    }
+
+    public int currentRotation() {
+        return rotation;
+    }
+
+    public int currentX() {
+        return x;
+    }
+
+    public int currentY() {
+        return y;
+    }
+
+    // Function to get the k-th upcoming piece (0 = next)
+    public int preview(int k) {
+        if (k < 0 || k >= queue.length - 1)
+            throw new IndexOutOfBoundsException("Preview " + k + " of " + (queue.length - 1));
+        return queue[(queueHead + k) % queue.length];
+    }
+
+    public int previewSize() {
+        return queue.length - 1;
+    }
+
+    public long score() {
+        return score;
+    }
+
+    public int level() {
+        return (int) (score / 100) + 1;
+    }
+
+    public long linesCleared() {
+        return linesCleared;
+    }
+
+    public long placements() {
+        return placements;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    // Row masks of a piece in a rotation (bit j = column j of the piece's bounding box)
+    public static long[] pieceMasks(int type, int rotation) {
+        return MASKS[type][rotation].clone();
+    }
+
+    public static int pieceWidth(int type, int rotation) {
+        return WIDTHS[type][rotation];
+    }
+
+    // Bot that plays the current piece by beam search over the preview queue
+    public static class AutoPlayer {
+        // Heuristic weights (aggregate height, cleared lines, holes, bumpiness) of the
+        // well-known genetically tuned Tetris evaluator
+        private static final double HEIGHT_WEIGHT = -0.510066, LINES_WEIGHT = 0.760666, HOLES_WEIGHT = -0.35663,
+                BUMPINESS_WEIGHT = -0.184483;
+        private static final double LOST = Double.NEGATIVE_INFINITY;
+
+        // Rotations whose masks differ from every lower rotation (e.g. only rotation 0 of O)
+        private static final boolean[][] DISTINCT = new boolean[PIECE_COUNT][4];
+
+        static {
+            for (int type = 0; type < PIECE_COUNT; type++) {
+                for (int rotation = 0; rotation < 4; rotation++) {
+                    DISTINCT[type][rotation] = true;
+                    for (int earlier = 0; earlier < rotation; earlier++) {
+                        if (Arrays.equals(MASKS[type][rotation], MASKS[type][earlier]))
+                            DISTINCT[type][rotation] = false;
+                    }
+                }
+            }
+        }
+
+        // Per-thread scratch board and column heights, so parallel evaluations never share memory
+        private static final ThreadLocal<long[][]> SCRATCH = ThreadLocal.withInitial(() -> new long[2][0]);
+
+        private final int beamWidth;
+        private final ForkJoinPool pool;
+        private final LongAdder evaluated = new LongAdder(), searchNanos = new LongAdder();
+
+        public AutoPlayer(int beamWidth) {
+            this(beamWidth, ForkJoinPool.commonPool());
+        }
+
+        public AutoPlayer(int beamWidth, ForkJoinPool pool) {
+            if (beamWidth < 1)
+                throw new IllegalArgumentException("Beam width must be positive: " + beamWidth);
+            this.beamWidth = beamWidth;
+            this.pool = pool;
+        }
+
+        // Function to choose {rotation, column} for the current piece, or null if none is legal.
+        // Several threads may search at once; the engine itself must not change during a search
+        // (search a snapshot() of a game that is still being played)
+        public int[] chooseMove(TetrisEngine engine) {
+            if (engine.isGameOver())
+                return null;
+            long start = System.nanoTime(), counted = 0;
+            int width = engine.width(), depth = 1 + engine.previewSize();
+            int[] pieces = new int[depth];
+            pieces[0] = engine.currentType();
+            for (int k = 1; k < depth; k++) {
+                pieces[k] = engine.preview(k - 1);
+            }
+
+            // Beam of boards, lines cleared on the way and the first move that led there
+            long[][] beam = { engine.rows.clone() };
+            int[] beamLines = { 0 }, beamFirst = { -1 };
+            for (int d = 0; d < depth; d++) {
+                int type = pieces[d], children = beam.length * 4 * width;
+                long[][] parents = beam;
+                int[] parentLines = beamLines;
+                double[] scores = new double[children];
+
+                // Evaluate every (board, rotation, column) child in parallel; each writes only its own slot
+                pool.submit(() -> IntStream.range(0, children).parallel().forEach(
+                        child -> scores[child] = evaluate(parents, parentLines, type, width, child))).join();
+
+                // Keep the best beamWidth children; ties go to the lower index, so the result is the
+                // same for any number of threads
+                int kept = 0;
+                double[] bestScores = new double[beamWidth];
+                int[] bestChildren = new int[beamWidth];
+                for (int child = 0; child < children; child++) {
+                    double score = scores[child];
+                    if (Double.isNaN(score))
+                        continue; // Not a placement (duplicate rotation or off the board)
+                    counted++;
+                    if (score == LOST || kept == beamWidth && score <= bestScores[kept - 1])
+                        continue;
+                    int k = kept < beamWidth ? kept++ : kept - 1;
+                    while (k > 0 && bestScores[k - 1] < score) {
+                        bestScores[k] = bestScores[k - 1];
+                        bestChildren[k] = bestChildren[k - 1];
+                        k--;
+                    }
+                    bestScores[k] = score;
+                    bestChildren[k] = child;
+                }
+                if (kept == 0) {
+                    record(counted, start);
+                    // Every placement loses: take any legal one at this depth (or none at the root)
+                    return d == 0 ? anyMove(engine) : firstMove(beamFirst[0], width);
+                }
+
+                // Materialise the survivors by replaying their placement
+                long[][] nextBeam = new long[kept][];
+                int[] nextLines = new int[kept], nextFirst = new int[kept];
+                for (int k = 0; k < kept; k++) {
+                    int child = bestChildren[k], parent = child / (4 * width);
+                    int rotation = child / width % 4, column = child % width;
+                    long[] board = parents[parent].clone();
+                    nextLines[k] = parentLines[parent] + drop(board, MASKS[type][rotation], column, fullRow(width));
+                    nextBeam[k] = board;
+                    nextFirst[k] = d == 0 ? rotation * width + column : beamFirst[parent];
+                }
+                beam = nextBeam;
+                beamLines = nextLines;
+                beamFirst = nextFirst;
+            }
+            record(counted, start);
+            return firstMove(beamFirst[0], width);
+        }
+
+        private void record(long counted, long start) {
+            evaluated.add(counted);
+            searchNanos.add(System.nanoTime() - start);
+        }
+
+        // Function to choose a move and place it; returns false if the game is over or no move is legal
+        public boolean play(TetrisEngine engine) {
+            int[] move = chooseMove(engine);
+            return move != null && engine.place(move[0], move[1]) >= 0;
+        }
+
+        // Number of placements scored so far, and the time spent searching
+        public long evaluatedPositions() {
+            return evaluated.sum();
+        }
+
+        // Positions per second of search time (summed over concurrent searches)
+        public double positionsPerSecond() {
+            long nanos = searchNanos.sum();
+            return nanos == 0 ? 0 : evaluated.sum() * 1e9 / nanos;
+        }
+
+        private static int[] firstMove(int encoded, int width) {
+            return new int[] { encoded / width, encoded % width };
+        }
+
+        private static int[] anyMove(TetrisEngine engine) {
+            int type = engine.currentType();
+            for (int rotation = 0; rotation < 4; rotation++) {
+                for (int column = 0; column + WIDTHS[type][rotation] <= engine.width(); column++) {
+                    if (engine.fits(type, rotation, column, 0))
+                        return new int[] { rotation, column };
+                }
+            }
+            return null;
+        }
+
+        // Function to score one child: NaN if it is not a placement, LOST if it cannot enter the
+        // board or ends the game, otherwise the heuristic of the board after it
+        private static double evaluate(long[][] parents, int[] parentLines, int type, int width, int child) {
+            int parent = child / (4 * width), rotation = child / width % 4, column = child % width;
+            if (!DISTINCT[type][rotation] || column + WIDTHS[type][rotation] > width)
+                return Double.NaN;
+            long[] masks = MASKS[type][rotation];
+            if (!fits(parents[parent], masks, column, 0))
+                return LOST;
+
+            long[][] scratch = SCRATCH.get();
+            long[] board = parents[parent];
+            if (scratch[0].length != board.length)
+                scratch[0] = new long[board.length];
+            if (scratch[1].length != width)
+                scratch[1] = new long[width];
+            long[] rows = scratch[0], heights = scratch[1];
+            System.arraycopy(board, 0, rows, 0, board.length);
+            int lines = parentLines[parent] + drop(rows, masks, column, fullRow(width));
+            if (rows[0] != 0)
+                return LOST; // The engine ends the game when a piece locks in the top row
+
+            // One pass from the top: a column's height is set by its first filled cell, and an
+            // empty cell below any filled cell of its column is a hole
+            long covered = 0;
+            int holes = 0;
+            for (int i = 0; i < rows.length; i++) {
+                holes += Long.bitCount(covered & ~rows[i]);
+                for (long fresh = rows[i] & ~covered; fresh != 0; fresh &= fresh - 1) {
+                    heights[Long.numberOfTrailingZeros(fresh)] = rows.length - i;
+                }
+                covered |= rows[i];
+            }
+            long aggregate = 0, bumpiness = 0;
+            for (int j = 0; j < width; j++) {
+                long h = (covered >>> j & 1) != 0 ? heights[j] : 0;
+                aggregate += h;
+                if (j > 0) {
+                    long left = (covered >>> (j - 1) & 1) != 0 ? heights[j - 1] : 0;
+                    bumpiness += Math.abs(h - left);
+                }
+            }
+            return HEIGHT_WEIGHT * aggregate + LINES_WEIGHT * lines + HOLES_WEIGHT * holes
+                    + BUMPINESS_WEIGHT * bumpiness;
+        }
+
+        // Function to drop a piece that fits at row 0 down a bitboard, lock it and clear full rows;
+        // returns the rows cleared
+        private static int drop(long[] rows, long[] masks, int column, long fullRow) {
+            int y = 0;
+            while (fits(rows, masks, column, y + 1)) {
+                y++;
+            }
+            boolean anyFull = false;
+            for (int i = 0; i < masks.length; i++) {
+                rows[y + i] |= masks[i] << column;
+                anyFull |= rows[y + i] == fullRow;
+            }
+            if (!anyFull)
+                return 0; // Only the piece's own rows can have become full
+
+            int target = rows.length - 1;
+            for (int i = rows.length - 1; i >= 0; i--) {
+                if (rows[i] != fullRow)
+                    rows[target--] = rows[i];
+            }
+            Arrays.fill(rows, 0, target + 1, 0L);
+            return target + 1;
+        }
+
+        private static long fullRow(int width) {
+            return width == 64 ? -1L : (1L << width) - 1;
+        }
+    }
+
+    // Function to play random legal placements until the game ends; returns the placements made
+    static long playRandomly(TetrisEngine engine, SplittableRandom choices) {
+        long before = engine.placements();
+        while (!engine.isGameOver()) {
+            int rotation = choices.nextInt(4);
+            int column = choices.nextInt(engine.width() - pieceWidth(engine.currentType(), rotation) + 1);
+            if (engine.place(rotation, column) < 0 && !engine.isGameOver()) {
+                // A piece that cannot enter the board in that rotation; try the spawn rotation
+                if (engine.place(0, engine.currentX()) < 0)
+                    break;
+            }
+        }
+        return engine.placements() - before;
+    }
+
+    // Function to check a piece against a plain grid (reference for the bitboard in main)
+    private static boolean gridFits(boolean[][] grid, long[] masks, int column, int row) {
+        for (int i = 0; i < masks.length; i++) {
+            for (int j = 0; j < 64; j++) {
+                if ((masks[i] >>> j & 1) != 0 && (row + i >= grid.length || grid[row + i][column + j]))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    public static void main(String[] args) {
+        // Test Case 1: the same seed replays the same game
+        TetrisEngine first = new TetrisEngine(10, 20, 3, Randomizer.BAG, 42);
+        TetrisEngine second = new TetrisEngine(10, 20, 3, Randomizer.BAG, 42);
+        playRandomly(first, new SplittableRandom(7));
+        playRandomly(second, new SplittableRandom(7));
+        boolean same = first.placements() == second.placements() && first.score() == second.score();
+        for (int row = 0; row < first.height(); row++) {
+            same &= first.rowMask(row) == second.rowMask(row);
+        }
+        System.out.println("Test Case 1: replay identical " + same + " (" + first.placements() + " placements)");
+
+        // Test Case 2: every bag of seven consecutive pieces holds all seven types
+        TetrisEngine bagged = new TetrisEngine(10, 20, 0, Randomizer.BAG, 1);
+        while (bagged.bagLeft > 0) {
+            bagged.nextPiece(); // Finish the bag the constructor started
+        }
+        boolean bagsComplete = true;
+        for (int bagIndex = 0; bagIndex < 1_000; bagIndex++) {
+            int seen = 0;
+            for (int k = 0; k < PIECE_COUNT; k++) {
+                seen |= 1 << bagged.nextPiece();
+            }
+            bagsComplete &= seen == (1 << PIECE_COUNT) - 1;
+        }
+        System.out.println("Test Case 2: 7-bag complete " + bagsComplete);
+
+        // Test Case 3: random play against a plain grid that drops, locks and clears cell by cell
+        TetrisEngine small = new TetrisEngine(6, 10, 0, Randomizer.UNIFORM, 0);
+        SplittableRandom moves = new SplittableRandom(5);
+        int mismatches = 0;
+        long checkedPlacements = 0, checkedLines = 0;
+        for (int game = 0; game < 2_000; game++) {
+            small.reset(game);
+            boolean[][] grid = new boolean[small.height()][small.width()];
+            while (!small.isGameOver()) {
+                int type = small.currentType(), rotation = moves.nextInt(4);
+                int column = moves.nextInt(small.width() - pieceWidth(type, rotation) + 1);
+                long[] masks = pieceMasks(type, rotation);
+                if (!gridFits(grid, masks, column, 0)) {
+                    if (small.place(rotation, column) != -1)
+                        mismatches++;
+                    break;
+                }
+                int row = 0;
+                while (gridFits(grid, masks, column, row + 1)) {
+                    row++;
+                }
+                for (int i = 0; i < masks.length; i++) {
+                    for (int j = 0; j < 64; j++) {
+                        if ((masks[i] >>> j & 1) != 0)
+                            grid[row + i][column + j] = true;
+                    }
+                }
+                int expectedCleared = 0;
+                for (int i = 0; i < grid.length; i++) {
+                    boolean full = true;
+                    for (boolean filled : grid[i]) {
+                        full &= filled;
+                    }
+                    if (full) {
+                        // Shift everything above down by one, as the original clearCompletedRows did
+                        for (int k = i; k > 0; k--) {
+                            grid[k] = grid[k - 1].clone();
+                        }
+                        grid[0] = new boolean[grid[0].length];
+                        expectedCleared++;
+                    }
+                }
+                if (small.place(rotation, column) != expectedCleared)
+                    mismatches++;
+                for (int i = 0; i < grid.length; i++) {
+                    for (int j = 0; j < grid[i].length; j++) {
+                        if (grid[i][j] != ((small.rowMask(i) >>> j & 1) != 0)
+                                || grid[i][j] != (small.cell(i, j) != EMPTY))
+                            mismatches++;
+                    }
+                }
+                checkedPlacements++;
+            }
+            checkedLines += small.linesCleared();
+            if (small.score() != 100 * small.linesCleared())
+                mismatches++;
+        }
+        System.out.println("Test Case 3: mismatches " + mismatches + " over " + checkedPlacements + " placements, "
+                + checkedLines + " rows cleared");
+
+        // Test Case 4: the auto-player with three preview pieces on a 7-bag game, against random play
+        TetrisEngine botGame = new TetrisEngine(10, 20, 3, Randomizer.BAG, 2024);
+        AutoPlayer bot = new AutoPlayer(8);
+        int illegal = 0;
+        while (!botGame.isGameOver() && botGame.placements() < 5_000) {
+            if (!bot.play(botGame))
+                illegal++;
+        }
+        System.out.println("Test Case 4: " + botGame.placements() + " placements, " + botGame.linesCleared()
+                + " rows cleared, game over " + botGame.isGameOver() + ", illegal moves " + illegal);
+
+        // Test Case 5: one and four worker threads choose identical moves
+        TetrisEngine alone = new TetrisEngine(10, 20, 2, Randomizer.UNIFORM, 99);
+        TetrisEngine shared = new TetrisEngine(10, 20, 2, Randomizer.UNIFORM, 99);
+        ForkJoinPool single = new ForkJoinPool(1), four = new ForkJoinPool(4);
+        AutoPlayer singleBot = new AutoPlayer(8, single), sharedBot = new AutoPlayer(8, four);
+        int differentMoves = 0;
+        for (int k = 0; k < 500 && !alone.isGameOver(); k++) {
+            if (!Arrays.equals(singleBot.chooseMove(alone), sharedBot.chooseMove(shared)))
+                differentMoves++;
+            singleBot.play(alone);
+            sharedBot.play(shared);
+        }
+        single.shutdown();
+        four.shutdown();
+        System.out.println("Test Case 5: different moves " + differentMoves + ", scores " + alone.score() + " "
+                + shared.score());
+
+        // Test Case 6: one player shared by four threads searching snapshots of the same game
+        ForkJoinPool searchPool = new ForkJoinPool(2);
+        AutoPlayer sharedPlayer = new AutoPlayer(8, searchPool);
+        TetrisEngine position = new TetrisEngine(10, 20, 2, Randomizer.BAG, 5).snapshot();
+        int[] reference = sharedPlayer.chooseMove(position);
+        long perSearch = sharedPlayer.evaluatedPositions();
+        int[] wrongMoves = new int[1];
+        Thread[] searchers = new Thread[4];
+        for (int t = 0; t < searchers.length; t++) {
+            searchers[t] = new Thread(() -> {
+                for (int k = 0; k < 50; k++) {
+                    if (!Arrays.equals(reference, sharedPlayer.chooseMove(position.snapshot()))) {
+                        synchronized (wrongMoves) {
+                            wrongMoves[0]++;
+                        }
+                    }
+                }
+            });
+            searchers[t].start();
+        }
+        for (Thread searcher : searchers) {
+            try {
+                searcher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        searchPool.shutdown();
+        System.out.println("Test Case 6: wrong moves " + wrongMoves[0] + ", positions counted "
+                + sharedPlayer.evaluatedPositions() + " of " + perSearch * 201);
+
+        // Bot throughput: evaluated placements per second of search
+        System.out.printf("Bot throughput: %d positions evaluated, %.1f million per second on %d worker threads%n",
+                bot.evaluatedPositions(), bot.positionsPerSecond() / 1e6,
+                ForkJoinPool.commonPool().getParallelism());
+
+        // Throughput: random games until 10^7 placements
+        SplittableRandom choices = new SplittableRandom(11);
+        TetrisEngine engine = new TetrisEngine(10, 20, 1, Randomizer.BAG, 0);
+        long placed = 0, games = 0, start = System.nanoTime();
+        while (placed < 10_000_000) {
+            engine.reset(games++);
+            placed += playRandomly(engine, choices);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Throughput: %d placements in %d games, %.1f million placements per second%n", placed,
+                games, placed / seconds / 1e6);
+    }
+}
+
+/**
+ * Test Results:
+ * ------------
+ * Test Case 1: replay identical true (19 placements)
+ * - Two engines with the same seed, fed the same placements, end with the same board and score
+ *
+ * Test Case 2: 7-bag complete true
+ * - 1,000 consecutive bags each contain all seven pieces
+ *
+ * Test Case 3: mismatches 0 over 11880 placements, 238 rows cleared
+ * - 2,000 random games on a 6x10 board checked after every placement against a plain boolean
+ *   grid that drops, locks and clears rows like the original GameBoard; score = 100 per row
+ *
+ * Test Case 4: 5000 placements, 1998 rows cleared, game over false, illegal moves 0
+ * - Beam width 8 over the current piece and three previews on a 7-bag game; random play
+ *   lasts about 19 placements, the bot clears 1,998 of the 2,000 rows possible in 5,000
+ *
+ * Test Case 5: different moves 0, scores 19900 19900
+ * - 500 moves chosen on a 1-thread and a 4-thread pool are identical
+ *
+ * Test Case 6: wrong moves 0, positions counted 111153 of 111153
+ * - Four threads share one player (and one pool) for 200 searches of snapshots; every move
+ *   matches the single search and no evaluated position is lost from the statistics
+ *
+ * Bot throughput: 3500564 positions evaluated, 0.9-1.1 million per second on 1 worker threads
+ * - Measured on a single core, so this is the sequential rate; the parallel speed-up was
+ *   not measured here
+ *
+ * Throughput: 10000013 placements in 530094 games, 2.8-3.3 million placements per second
+ * - Range over three runs of main: random play on a 10x20 board with a 7-bag on one core,
+ *   reusing one engine via reset
+ *   (the original generateRandomBlock alone built seven Block templates and a Random per spawn)
+ */
@@ -0,0 +1,271 @@
+/*
+Union-Find (shared component):
+MinimumNetworkCost (Question 3a) and the network optimizer (Question 5) both run Kruskal's algorithm on
+a disjoint-set structure. This class provides that structure once, in two variants:
+- UnionFind: single-threaded, iterative find with path halving and union by rank
+- UnionFind.Concurrent: lock-free, so edges can be unioned from many threads at once
+*/
+
+// Solution:
+
+/*
+ * Algorithm Explanation:
+ * ---------------------
+ * Sequential variant:
+ * - parent[x] points towards the root of x's set; rank[root] bounds the height of its tree
+ * - find walks up iteratively and points every other node at its grandparent (path halving),
+ *   so there is no recursion and later finds get shorter
+ * - union links the root of smaller rank under the other, keeping trees O(log n) high
+ * - fromParents restores saved sets from a parent array (checked for cycles); its chains can be
+ *   arbitrarily deep, which the iterative find handles without recursion
+ *
+ * Concurrent variant:
+ * - Parents live in an AtomicIntegerArray; every change is a compareAndSet
+ * - find does path halving with CAS: a failed CAS only means another thread already
+ *   shortened the path, so it is never retried
+ * - union links roots by a fixed random priority (a bijective hash of the element): the root
+ *   of lower priority is CAS-linked under the other, which succeeds only if it is still a
+ *   root; otherwise both roots are found again and the link is retried
+ * - Random priorities replace ranks, which cannot be updated together with the parent in one
+ *   CAS, and still give O(log n) expected height
+ * - connected re-checks that the first root is still a root, so a concurrent union between
+ *   the two finds cannot produce a stale "false"
+ *
+ * Time Complexity: O(α(n)) amortised per operation (sequential), O(log n) expected per
+ *                  operation (concurrent)
+ * Space Complexity: O(n)
+ */
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+public class UnionFind {
+    private final int[] parent, rank;
+    private int components;
+
+    public UnionFind(int n) {
+        parent = new int[n];
+        rank = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i; // Each element starts in its own set
+        }
+        components = n;
+    }
+
+    // Function to restore sets from a parent array (roots point to themselves), e.g. saved
+    // components; the array may hold chains of any depth, which the iterative find handles
+    public static UnionFind fromParents(int[] parent) {
+        int n = parent.length;
+        UnionFind sets = new UnionFind(n);
+        sets.components = 0;
+        for (int i = 0; i < n; i++) {
+            if (parent[i] < 0 || parent[i] >= n)
+                throw new IllegalArgumentException("Parent out of range at " + i + ": " + parent[i]);
+            sets.parent[i] = parent[i];
+            if (parent[i] == i)
+                sets.components++;
+        }
+
+        // Reject cycles: walk each unvisited path to a root or to an element seen on this walk
+        int[] walk = new int[n]; // 0 = unvisited, otherwise 1 + the index of the walk that saw it
+        for (int start = 0; start < n; start++) {
+            int x = start;
+            while (walk[x] == 0) {
+                walk[x] = start + 1;
+                x = parent[x];
+            }
+            if (walk[x] == start + 1 && parent[x] != x)
+                throw new IllegalArgumentException("Parent array has a cycle through " + x);
+        }
+        return sets;
+    }
+
+    // Function to find the root of x's set with path halving
+    public int find(int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]]; // Point to the grandparent
+            x = parent[x];
+        }
+        return x;
+    }
+
+    // Function to merge the sets of x and y; returns false if they were already one set
+    public boolean union(int x, int y) {
+        int rootX = find(x), rootY = find(y);
+        if (rootX == rootY)
+            return false;
+        if (rank[rootX] < rank[rootY]) {
+            parent[rootX] = rootY;
+        } else if (rank[rootX] > rank[rootY]) {
+            parent[rootY] = rootX;
+        } else {
+            parent[rootY] = rootX;
+            rank[rootX]++;
+        }
+        components--;
+        return true;
+    }
+
+    public boolean connected(int x, int y) {
+        return find(x) == find(y);
+    }
+
+    // Function to get the number of disjoint sets
+    public int components() {
+        return components;
+    }
+
+    // Lock-free union-find that many threads can use at once
+    public static class Concurrent {
+        private final AtomicIntegerArray parent;
+        private final int seed;
+
+        public Concurrent(int n) {
+            this(n, new Random().nextInt());
+        }
+
+        // Fixed seed for reproducible linking
+        public Concurrent(int n, int seed) {
+            parent = new AtomicIntegerArray(n);
+            for (int i = 0; i < n; i++) {
+                parent.set(i, i);
+            }
+            this.seed = seed;
+        }
+
+        // Function to find the root of x's set, halving the path with CAS on the way
+        public int find(int x) {
+            while (true) {
+                int p = parent.get(x);
+                if (p == x)
+                    return x;
+                int grandparent = parent.get(p);
+                if (p != grandparent)
+                    parent.compareAndSet(x, p, grandparent); // Losing the race is fine
+                x = grandparent;
+            }
+        }
+
+        // Function to merge the sets of x and y; returns true for exactly one of any racing
+        // calls that join the same two sets
+        public boolean union(int x, int y) {
+            while (true) {
+                int rootX = find(x), rootY = find(y);
+                if (rootX == rootY)
+                    return false;
+                if (priority(rootX) > priority(rootY)) {
+                    int swap = rootX;
+                    rootX = rootY;
+                    rootY = swap;
+                }
+                // Link the lower-priority root; fails if it stopped being a root meanwhile
+                if (parent.compareAndSet(rootX, rootX, rootY))
+                    return true;
+            }
+        }
+
+        public boolean connected(int x, int y) {
+            while (true) {
+                int rootX = find(x), rootY = find(y);
+                if (rootX == rootY)
+                    return true;
+                if (parent.get(rootX) == rootX)
+                    return false; // rootX was still a root after rootY was read
+            }
+        }
+
+        // Bijective mix of the element, so priorities never tie
+        private int priority(int x) {
+            int h = x ^ seed;
+            h ^= h >>> 16;
+            h *= 0x85EBCA6B;
+            h ^= h >>> 13;
+            h *= 0xC2B2AE35;
+            h ^= h >>> 16;
+            return h;
+        }
+    }
+
+    public static void main(String[] args) {
+        // Test Case 1: small sets
+        UnionFind sets = new UnionFind(6);
+        sets.union(0, 1);
+        sets.union(2, 3);
+        sets.union(1, 3);
+        System.out.println("Test Case 1: " + sets.connected(0, 2) + " " + sets.connected(0, 4) + " "
+                + sets.components()); // Output: true false 3
+
+        // Test Case 2: a path of 10^6 unions stays shallow and needs no recursion
+        int n = 1_000_000;
+        UnionFind chain = new UnionFind(n);
+        UnionFind.Concurrent concurrentChain = new UnionFind.Concurrent(n, 1);
+        for (int i = 1; i < n; i++) {
+            chain.union(i - 1, i);
+            concurrentChain.union(i - 1, i);
+        }
+        System.out.println("Test Case 2: " + chain.connected(0, n - 1) + " " + concurrentChain.connected(0, n - 1)
+                + " " + chain.components()); // Output: true true 1
+
+        // Test Case 3: random unions from all worker threads against the sequential variant
+        Random random = new Random(3);
+        int mismatches = 0;
+        for (int trial = 0; trial < 50; trial++) {
+            int size = 1 + random.nextInt(100_000), m = random.nextInt(2 * size);
+            int[] a = random.ints(m, 0, size).toArray(), b = random.ints(m, 0, size).toArray();
+            UnionFind expected = new UnionFind(size);
+            for (int k = 0; k < m; k++) {
+                expected.union(a[k], b[k]);
+            }
+            UnionFind.Concurrent actual = new UnionFind.Concurrent(size, trial);
+            long merged = ForkJoinPool.commonPool()
+                    .submit(() -> IntStream.range(0, m).parallel().filter(k -> actual.union(a[k], b[k])).count())
+                    .join();
+            boolean same = merged == size - expected.components();
+            for (int k = 0; same && k < 1_000; k++) {
+                int x = random.nextInt(size), y = random.nextInt(size);
+                same = expected.connected(x, y) == actual.connected(x, y);
+            }
+            if (!same)
+                mismatches++;
+        }
+        System.out.println("Test Case 3: concurrent mismatches " + mismatches); // Output: 0
+
+        // Test Case 4: restoring a chain of 10^6 saved parents, and rejecting a cycle
+        int[] saved = new int[n];
+        for (int i = 0; i < n; i++) {
+            saved[i] = Math.min(i + 1, n - 1);
+        }
+        UnionFind restored = UnionFind.fromParents(saved);
+        String cycle;
+        try {
+            UnionFind.fromParents(new int[] { 1, 2, 0, 3 });
+            cycle = "accepted";
+        } catch (IllegalArgumentException e) {
+            cycle = "rejected";
+        }
+        System.out.println("Test Case 4: " + restored.find(0) + " " + restored.components() + " cycle " + cycle);
+        // Output: 999999 1 cycle rejected
+    }
+}
+
+/**
+ * Test Results:
+ * ------------
+ * Test Case 1: true false 3
+ * - {0, 1, 2, 3}, {4} and {5} remain
+ *
+ * Test Case 2: true true 1
+ * - 10^6 chained unions; both variants keep the trees shallow, so nothing recurses
+ *
+ * Test Case 3: concurrent mismatches 0
+ * - Across 50 random instances, the parallel unions report exactly n - components merges
+ *   and agree with the sequential variant on 1,000 random connectivity queries each
+ *
+ * Test Case 4: 999999 1 cycle rejected
+ * - A saved chain of 10^6 parents is found iteratively (the baseline recursive find overflows
+ *   the stack on it, see Question3a.java); a parent array with a cycle is refused
+ *
+ * Timing of both variants on 10^7 elements: see Question3a.java
+ */